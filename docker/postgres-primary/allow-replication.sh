@@ -0,0 +1,4 @@
+#!/bin/bash
+# Разрешает реплике из compose-профиля replica подключаться для потоковой репликации.
+# Выполняется только при создании нового тома postgres_data
+echo "host replication all all trust" >> "$PGDATA/pg_hba.conf"
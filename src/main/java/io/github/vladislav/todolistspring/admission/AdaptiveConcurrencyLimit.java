@@ -0,0 +1,92 @@
+package io.github.vladislav.todolistspring.admission;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Адаптивный лимит одновременных запросов (градиентный, по закону Литтла: полезная
+ * одновременность равна пропускной способности, умноженной на время ответа без очереди).
+ * Текущее время ответа (скользящее среднее) сравнивается с базовым - минимальным,
+ * которое медленно подтягивается вверх, если БД стала стабильно медленнее.
+ * Пока текущее не выше базового с запасом TOLERANCE, лимит растёт на sqrt(limit),
+ * когда запросы начинают ждать в очереди (БД тормозит) - уменьшается пропорционально
+ * их отношению, но не больше чем вдвое за шаг.
+ * Занятие места - CAS без блокировок; пересчёт лимита пропускается, если им уже занят другой поток
+ *
+ * @author Степанов Владислав
+ */
+public class AdaptiveConcurrencyLimit {
+    private static final double TOLERANCE = 1.5;
+    private static final double SMOOTHING = 0.2;
+    private static final double SHORT_ALPHA = 2.0 / (10 + 1);
+    private static final double BASELINE_DRIFT = 1.0 / 10_000;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final ReentrantLock updateLock = new ReentrantLock();
+    private final int minLimit;
+    private final int maxLimit;
+    private volatile int limit;
+    private double estimatedLimit;
+    private double shortRtt;
+    private double baselineRtt;
+
+    public AdaptiveConcurrencyLimit(int initialLimit, int minLimit, int maxLimit) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.estimatedLimit = Math.clamp(initialLimit, minLimit, maxLimit);
+        this.limit = (int) estimatedLimit;
+    }
+
+    /**
+     * @return - true, если место занято и его нужно вернуть через {@link #release}
+     */
+    public boolean tryAcquire() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    /**
+     * @param rttNanos - время обработки запроса
+     */
+    public void release(long rttNanos) {
+        int current = inFlight.getAndDecrement();
+        if (updateLock.tryLock()) {
+            try {
+                update(rttNanos, current);
+            } finally {
+                updateLock.unlock();
+            }
+        }
+    }
+
+    public int limit() {
+        return limit;
+    }
+
+    public int inFlight() {
+        return inFlight.get();
+    }
+
+    private void update(long rtt, int inFlightAtRelease) {
+        if (baselineRtt == 0 || rtt < baselineRtt) {
+            baselineRtt = rtt;
+        } else {
+            baselineRtt += (rtt - baselineRtt) * BASELINE_DRIFT;
+        }
+        shortRtt = shortRtt == 0 ? rtt : shortRtt + (rtt - shortRtt) * SHORT_ALPHA;
+        // При загрузке меньше половины лимита задержки ничего не говорят о том, сколько можно пропустить
+        if (inFlightAtRelease < estimatedLimit / 2) {
+            return;
+        }
+        double gradient = Math.clamp(TOLERANCE * baselineRtt / shortRtt, 0.5, 1.0);
+        double next = estimatedLimit * gradient + Math.sqrt(estimatedLimit);
+        estimatedLimit = Math.clamp(estimatedLimit * (1 - SMOOTHING) + next * SMOOTHING, minLimit, maxLimit);
+        limit = (int) estimatedLimit;
+    }
+}
@@ -0,0 +1,113 @@
+package io.github.vladislav.todolistspring.admission;
+
+import io.github.vladislav.todolistspring.config.AdmissionProperties;
+import io.github.vladislav.todolistspring.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.DispatcherType;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.AsyncHandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Допуск запросов к эндпоинтам. У каждого метода контроллера свой {@link AdaptiveConcurrencyLimit}:
+ * сверх лимита запрос сразу получает 503, а не ждёт в очереди к пулу соединений.
+ * Допущенному запросу задаётся крайний срок - таймаут эндпоинта или меньший из заголовка
+ * X-Request-Timeout (миллисекунды). Потоковые эндпоинты (todo.admission.excluded) держат
+ * соединение долго и не ограничиваются
+ *
+ * @author Степанов Владислав
+ */
+public class AdmissionControlInterceptor implements AsyncHandlerInterceptor {
+    public static final String TIMEOUT_HEADER = "X-Request-Timeout";
+    private static final String ADMITTED = AdmissionControlInterceptor.class.getName() + ".admitted";
+    private static final AdmissionRejectedException REJECTED =
+            new AdmissionRejectedException("Сервис перегружен, повторите запрос позже");
+
+    private final AdmissionProperties properties;
+    private final MeterRegistry registry;
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+
+    public AdmissionControlInterceptor(AdmissionProperties properties, MeterRegistry registry) {
+        this.properties = properties;
+        this.registry = registry;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod method) || request.getDispatcherType() != DispatcherType.REQUEST) {
+            return true;
+        }
+        String name = method.getMethod().getName();
+        if (properties.excluded().contains(name)) {
+            return true;
+        }
+        Endpoint endpoint = endpoints.computeIfAbsent(name, this::newEndpoint);
+        if (!endpoint.limit().tryAcquire()) {
+            endpoint.rejected().increment();
+            throw REJECTED;
+        }
+        request.setAttribute(ADMITTED, new Admission(endpoint.limit(), System.nanoTime()));
+        RequestDeadline.start(timeout(endpoint.timeout(), request.getHeader(TIMEOUT_HEADER)));
+        return true;
+    }
+
+    @Override
+    public void afterConcurrentHandlingStarted(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        RequestDeadline.clear();
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        RequestDeadline.clear();
+        if (request.getAttribute(ADMITTED) instanceof Admission admission) {
+            request.removeAttribute(ADMITTED);
+            admission.limit().release(System.nanoTime() - admission.startNanos());
+        }
+    }
+
+    private Duration timeout(Duration endpointTimeout, String header) {
+        if (header == null) {
+            return endpointTimeout;
+        }
+        try {
+            long millis = Long.parseLong(header.trim());
+            return millis > 0 && millis < endpointTimeout.toMillis() ? Duration.ofMillis(millis) : endpointTimeout;
+        } catch (NumberFormatException e) {
+            return endpointTimeout;
+        }
+    }
+
+    private Endpoint newEndpoint(String name) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(
+                properties.initialLimit(), properties.minLimit(), properties.maxLimit());
+        Gauge.builder("todo.admission.limit", limit, AdaptiveConcurrencyLimit::limit)
+                .description("Текущий лимит одновременных запросов эндпоинта")
+                .tag("endpoint", name)
+                .register(registry);
+        Gauge.builder("todo.admission.in-flight", limit, AdaptiveConcurrencyLimit::inFlight)
+                .description("Запросы эндпоинта в обработке")
+                .tag("endpoint", name)
+                .register(registry);
+        Counter rejected = Counter.builder("todo.admission.rejected")
+                .description("Запросы, отклонённые сверх лимита")
+                .tag("endpoint", name)
+                .register(registry);
+        return new Endpoint(limit, properties.timeouts().getOrDefault(name, properties.defaultTimeout()), rejected);
+    }
+
+    private record Endpoint(AdaptiveConcurrencyLimit limit, Duration timeout, Counter rejected) {
+    }
+
+    private record Admission(AdaptiveConcurrencyLimit limit, long startNanos) {
+    }
+}
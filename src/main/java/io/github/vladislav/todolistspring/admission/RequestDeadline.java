@@ -0,0 +1,36 @@
+package io.github.vladislav.todolistspring.admission;
+
+import lombok.experimental.UtilityClass;
+
+import java.time.Duration;
+
+/**
+ * Крайний срок текущего запроса. Задаётся {@link AdmissionControlInterceptor}
+ * и ограничивает время SQL-запросов, см. QueryDeadlineInterceptor
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class RequestDeadline {
+    private final ThreadLocal<Long> DEADLINE = new ThreadLocal<>();
+
+    public void start(Duration timeout) {
+        DEADLINE.set(System.nanoTime() + timeout.toNanos());
+    }
+
+    public boolean isSet() {
+        return DEADLINE.get() != null;
+    }
+
+    /**
+     * @return - сколько осталось до срока, Long.MAX_VALUE - срок не задан
+     */
+    public long remainingNanos() {
+        Long deadline = DEADLINE.get();
+        return deadline == null ? Long.MAX_VALUE : deadline - System.nanoTime();
+    }
+
+    public void clear() {
+        DEADLINE.remove();
+    }
+}
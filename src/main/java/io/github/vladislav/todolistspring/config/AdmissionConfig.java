@@ -0,0 +1,57 @@
+package io.github.vladislav.todolistspring.config;
+
+import io.github.vladislav.todolistspring.admission.AdmissionControlInterceptor;
+import io.github.vladislav.todolistspring.repository.QueryDeadlineInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Допуск запросов к /v1/** ({@link AdmissionControlInterceptor}) и перенос их крайнего срока
+ * в таймаут SQL-запросов репозиториев ({@link QueryDeadlineInterceptor})
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnBooleanProperty(value = "todo.admission.enabled", matchIfMissing = true)
+public class AdmissionConfig implements WebMvcConfigurer {
+    private final AdmissionProperties properties;
+    private final MeterRegistry registry;
+
+    @Bean
+    public QueryDeadlineInterceptor queryDeadlineInterceptor(EntityManagerFactory entityManagerFactory) {
+        return new QueryDeadlineInterceptor(entityManagerFactory);
+    }
+
+    /**
+     * Advice добавляется в прокси репозитория при его создании фабрикой Spring Data
+     */
+    @Bean
+    public static BeanPostProcessor queryDeadlineRepositoryCustomizer(ObjectProvider<QueryDeadlineInterceptor> interceptor) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+                    factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, repositoryInformation) -> proxyFactory.addAdvice(interceptor.getObject())));
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new AdmissionControlInterceptor(properties, registry))
+                .addPathPatterns("/v1/**");
+    }
+}
@@ -0,0 +1,30 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Настройки допуска запросов и их крайних сроков
+ * @param enabled - включён ли допуск
+ * @param initialLimit - начальный лимит одновременных запросов эндпоинта
+ * @param minLimit - ниже этого лимит не опускается
+ * @param maxLimit - выше этого лимит не поднимается
+ * @param defaultTimeout - крайний срок запроса, если для эндпоинта не задан свой
+ * @param timeouts - крайние сроки по имени метода контроллера
+ * @param excluded - методы контроллера без лимита и крайнего срока (потоковые ответы)
+ */
+@ConfigurationProperties(prefix = "todo.admission")
+public record AdmissionProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("20") int initialLimit,
+        @DefaultValue("4") int minLimit,
+        @DefaultValue("200") int maxLimit,
+        @DefaultValue("10s") Duration defaultTimeout,
+        @DefaultValue Map<String, Duration> timeouts,
+        @DefaultValue({"subscribe", "exportTasks"}) Set<String> excluded
+) {
+}
@@ -0,0 +1,22 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Кэш задач (Caffeine, настройки в spring.cache.caffeine.spec).
+ * Advice кэша стоит снаружи транзакционного: попадание в кэш не открывает транзакцию
+ * и не берёт соединение из пула, а @CacheEvict срабатывает уже после коммита
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+@EnableCaching(order = Ordered.HIGHEST_PRECEDENCE)
+public class CacheConfig {
+
+    /**
+     * TaskDto по id задачи
+     */
+    public static final String TASKS_CACHE = "tasks";
+}
@@ -0,0 +1,26 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.filter.ShallowEtagHeaderFilter;
+
+/**
+ * ETag для страниц списка. У страницы нет одной версии, поэтому ETag считается
+ * по хэшу тела ответа: запрос к БД выполняется, но на совпавший If-None-Match
+ * клиент получает 304 без тела. Для задачи по id ETag - её версия, см. TaskController
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+public class EtagConfig {
+
+    @Bean
+    public FilterRegistrationBean<ShallowEtagHeaderFilter> listEtagFilter() {
+        FilterRegistrationBean<ShallowEtagHeaderFilter> registration =
+                new FilterRegistrationBean<>(new ShallowEtagHeaderFilter());
+        registration.addUrlPatterns("/v1/tasks", "/v1/tasks/columns", "/v1/tasks/scroll");
+        registration.setName("listEtagFilter");
+        return registration;
+    }
+}
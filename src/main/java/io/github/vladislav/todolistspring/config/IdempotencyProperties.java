@@ -0,0 +1,20 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки ключей идемпотентности создания задач
+ * @param ttl - сколько хранится ключ: повтор после этого срока создаст новую задачу
+ * @param maxEntries - максимум ключей в памяти, остальные читаются из БД
+ * @param maxKeyLength - максимальная длина заголовка Idempotency-Key
+ */
+@ConfigurationProperties(prefix = "todo.idempotency")
+public record IdempotencyProperties(
+        @DefaultValue("24h") Duration ttl,
+        @DefaultValue("100000") int maxEntries,
+        @DefaultValue("255") int maxKeyLength
+) {
+}
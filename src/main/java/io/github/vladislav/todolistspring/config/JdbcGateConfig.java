@@ -0,0 +1,41 @@
+package io.github.vladislav.todolistspring.config;
+
+import io.github.vladislav.todolistspring.datasource.JdbcConcurrencyGate;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import javax.sql.DataSource;
+
+/**
+ * Оборачивает основной DataSource в {@link JdbcConcurrencyGate}: место занимается на время
+ * соединения, то есть транзакции, а не отдельного вызова репозитория.
+ * С репликами оборачивается LazyConnectionDataSourceProxy, и лимит общий для основной БД и реплик.
+ * Включается свойством todo.jdbc.gate.enabled, обычно вместе со spring.threads.virtual.enabled
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+@ConditionalOnBooleanProperty("todo.jdbc.gate.enabled")
+public class JdbcGateConfig {
+
+    /**
+     * Основной DataSource - бин dataSource и из автоконфигурации, и из {@link ReplicaDataSourceConfig}
+     */
+    @Bean
+    public static BeanPostProcessor jdbcGateDataSourceWrapper(ObjectProvider<JdbcGateProperties> properties,
+                                                              ObjectProvider<MeterRegistry> registry) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if ("dataSource".equals(beanName) && bean instanceof DataSource dataSource) {
+                    return new JdbcConcurrencyGate(dataSource, properties.getObject(), registry.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+}
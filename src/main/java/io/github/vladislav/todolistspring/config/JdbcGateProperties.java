@@ -0,0 +1,20 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки ограничителя одновременных обращений к БД
+ * @param enabled - включён ли ограничитель
+ * @param permits - максимум одновременных вызовов репозитория, обычно равен размеру пула Hikari
+ * @param acquireTimeout - сколько ждать свободного места, после чего запрос отклоняется
+ */
+@ConfigurationProperties(prefix = "todo.jdbc.gate")
+public record JdbcGateProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("10") int permits,
+        @DefaultValue("2s") Duration acquireTimeout
+) {
+}
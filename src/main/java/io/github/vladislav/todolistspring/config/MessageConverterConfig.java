@@ -0,0 +1,20 @@
+package io.github.vladislav.todolistspring.config;
+
+import io.github.vladislav.todolistspring.converter.TaskColumnsHttpMessageConverter;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Дополнительные форматы ответов. Spring Boot добавляет бины HttpMessageConverter
+ * к стандартным конвертерам Spring MVC
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+public class MessageConverterConfig {
+
+    @Bean
+    public TaskColumnsHttpMessageConverter taskColumnsHttpMessageConverter() {
+        return new TaskColumnsHttpMessageConverter();
+    }
+}
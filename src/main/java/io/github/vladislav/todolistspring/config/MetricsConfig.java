@@ -0,0 +1,37 @@
+package io.github.vladislav.todolistspring.config;
+
+import io.github.vladislav.todolistspring.metrics.QueryCountInspector;
+import io.github.vladislav.todolistspring.metrics.QueryCountInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.hibernate.autoconfigure.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+/**
+ * Метрики, которых нет в автоконфигурации actuator: число SQL-запросов на HTTP-запрос
+ * и выборочный журнал SQL. Таймеры эндпоинтов (http.server.requests), репозиториев
+ * (spring.data.repository.invocations), пула Hikari и кэша настраивает Spring Boot
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+@RequiredArgsConstructor
+public class MetricsConfig implements WebMvcConfigurer {
+    private final MeterRegistry registry;
+
+    @Bean
+    public HibernatePropertiesCustomizer queryCountInspectorCustomizer(QueryLogProperties properties) {
+        return hibernateProperties -> hibernateProperties.put(
+                AvailableSettings.STATEMENT_INSPECTOR,
+                new QueryCountInspector(properties.sampleRate()));
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        interceptors.addInterceptor(new QueryCountInterceptor(registry));
+    }
+}
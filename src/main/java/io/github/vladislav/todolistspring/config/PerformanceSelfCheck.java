@@ -0,0 +1,112 @@
+package io.github.vladislav.todolistspring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Проверка при старте, что действующие настройки не противоречат настройкам производительности
+ * из профиля prod (application-prod.properties). Расхождения пишутся в лог предупреждениями,
+ * при todo.self-check.fail-on-warning запуск останавливается
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PerformanceSelfCheck {
+    private final SelfCheckProperties properties;
+    private final Environment environment;
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource dataSource;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (!properties.enabled()) {
+            return;
+        }
+        List<String> warnings = check();
+        warnings.forEach(w -> log.warn("Проверка конфигурации: {}", w));
+        if (!warnings.isEmpty() && properties.failOnWarning()) {
+            throw new IllegalStateException("Конфигурация не прошла проверку: " + String.join("; ", warnings));
+        }
+    }
+
+    /**
+     * @return - найденные расхождения, пустой список - всё в порядке
+     */
+    public List<String> check() {
+        List<String> warnings = new ArrayList<>();
+        // Spring Boot по умолчанию включает open-in-view
+        if (environment.getProperty("spring.jpa.open-in-view", Boolean.class, true)) {
+            warnings.add("spring.jpa.open-in-view включён: соединение держится до конца записи ответа");
+        }
+        if (environment.getProperty("spring.jpa.show-sql", Boolean.class, false)) {
+            warnings.add("spring.jpa.show-sql включён: каждый запрос синхронно печатается в stdout");
+        }
+
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        SessionFactoryOptions options = sessionFactory.getSessionFactoryOptions();
+        int batchSize = options.getJdbcBatchSize();
+        if (batchSize <= 1) {
+            warnings.add("hibernate.jdbc.batch_size = " + batchSize + ": INSERT/UPDATE не группируются в JDBC-батчи");
+        } else {
+            if (!options.isOrderInsertsEnabled()) {
+                warnings.add("hibernate.order_inserts выключен: вставки разных сущностей разбивают батчи");
+            }
+            // Id, который выдаёт БД при вставке (IDENTITY), отключает батчинг INSERT для сущности
+            sessionFactory.getMappingMetamodel().forEachEntityDescriptor(persister -> {
+                if (persister.getGenerator() != null && persister.getGenerator().generatedOnExecution()) {
+                    warnings.add("id сущности " + persister.getEntityName()
+                            + " генерируется БД при вставке: hibernate.jdbc.batch_size для INSERT не действует");
+                }
+            });
+        }
+
+        HikariDataSource hikari = unwrapHikari();
+        if (hikari != null) {
+            if (batchSize > 1 && !Boolean.parseBoolean(
+                    hikari.getDataSourceProperties().getProperty("reWriteBatchedInserts"))) {
+                warnings.add("reWriteBatchedInserts не задан: драйвер отправляет батч INSERT построчно");
+            }
+            // Hibernate не выключает autocommit сам, а Hikari выдаёт соединения с autocommit:
+            // каждый запрос транзакции фиксировался бы отдельно
+            if (options.doesConnectionProviderDisableAutoCommit() && hikari.isAutoCommit()) {
+                warnings.add("hibernate.connection.provider_disables_autocommit включён, "
+                        + "а spring.datasource.hikari.auto-commit - нет");
+            }
+            if (hikari.getMinimumIdle() < hikari.getMaximumPoolSize()) {
+                warnings.add("spring.datasource.hikari.minimum-idle = " + hikari.getMinimumIdle()
+                        + " меньше maximum-pool-size = " + hikari.getMaximumPoolSize()
+                        + ": соединения открываются под нагрузкой");
+            }
+            int permits = environment.getProperty("todo.jdbc.gate.permits", Integer.class, 0);
+            if (environment.getProperty("todo.jdbc.gate.enabled", Boolean.class, false)
+                    && permits > hikari.getMaximumPoolSize()) {
+                warnings.add("todo.jdbc.gate.permits = " + permits + " больше пула Hikari "
+                        + hikari.getMaximumPoolSize() + ": лишние запросы ждут соединение в пуле");
+            }
+        }
+        return warnings;
+    }
+
+    private HikariDataSource unwrapHikari() {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+}
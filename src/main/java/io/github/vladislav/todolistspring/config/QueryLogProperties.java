@@ -0,0 +1,14 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки журнала SQL-запросов
+ * @param sampleRate - доля запросов, которые пишутся в лог io.github.vladislav.todolistspring.sql
+ */
+@ConfigurationProperties(prefix = "todo.query-log")
+public record QueryLogProperties(
+        @DefaultValue("0") double sampleRate
+) {
+}
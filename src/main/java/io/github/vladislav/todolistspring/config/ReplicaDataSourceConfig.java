@@ -0,0 +1,90 @@
+package io.github.vladislav.todolistspring.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.vladislav.todolistspring.datasource.ReadReplicaDataSource;
+import io.github.vladislav.todolistspring.datasource.ReadYourWritesInterceptor;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBooleanProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.autoconfigure.DataSourceProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import javax.sql.DataSource;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Чтение с реплик (todo.replicas.enabled). Основной DataSource - {@link LazyConnectionDataSourceProxy}:
+ * соединение берётся при первом запросе, когда признак readOnly транзакции уже известен,
+ * и для readOnly-транзакций - из {@link ReadReplicaDataSource}, для остальных - из основной БД.
+ * Flyway и пишущие транзакции всегда работают с основной БД
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+@ConditionalOnBooleanProperty("todo.replicas.enabled")
+@RequiredArgsConstructor
+public class ReplicaDataSourceConfig implements WebMvcConfigurer {
+    private final ReplicaProperties properties;
+
+    /**
+     * Пул основной БД, настраивается как обычно через spring.datasource.*
+     */
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    public ReadReplicaDataSource readReplicaDataSource(HikariDataSource primaryDataSource,
+                                                       DataSourceProperties dataSourceProperties,
+                                                       MeterRegistry registry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (int i = 0; i < properties.urls().size(); i++) {
+            HikariDataSource replica = new HikariDataSource();
+            replica.setPoolName("replica-" + i);
+            replica.setJdbcUrl(properties.urls().get(i));
+            replica.setUsername(properties.username() != null
+                    ? properties.username() : dataSourceProperties.determineUsername());
+            replica.setPassword(properties.password() != null
+                    ? properties.password() : dataSourceProperties.determinePassword());
+            replica.setDriverClassName(dataSourceProperties.determineDriverClassName());
+            replica.setMaximumPoolSize(properties.poolSize());
+            replica.setReadOnly(true);
+            // Как у основного пула, иначе provider_disables_autocommit получил бы соединение с autocommit
+            replica.setAutoCommit(primaryDataSource.isAutoCommit());
+            replica.setConnectionTimeout(primaryDataSource.getConnectionTimeout());
+            replica.setMaxLifetime(primaryDataSource.getMaxLifetime());
+            replica.setDataSourceProperties((Properties) primaryDataSource.getDataSourceProperties().clone());
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(properties.urls().get(i), replica);
+        }
+        ReadReplicaDataSource dataSource = new ReadReplicaDataSource(
+                primaryDataSource, replicas, properties.maxLag(), registry);
+        dataSource.checkHealth();
+        return dataSource;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(HikariDataSource primaryDataSource, ReadReplicaDataSource readReplicaDataSource) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(primaryDataSource);
+        dataSource.setReadOnlyDataSource(readReplicaDataSource);
+        return dataSource;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry interceptors) {
+        if (!properties.readYourWrites().isZero()) {
+            interceptors.addInterceptor(new ReadYourWritesInterceptor(properties.readYourWrites()));
+        }
+    }
+}
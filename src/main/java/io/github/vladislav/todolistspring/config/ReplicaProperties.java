@@ -0,0 +1,31 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Настройки чтения с реплик
+ * @param enabled - направлять ли readOnly-транзакции на реплики
+ * @param urls - JDBC URL реплик
+ * @param username - пользователь реплик, null - как у основной БД
+ * @param password - пароль реплик, null - как у основной БД
+ * @param poolSize - размер пула Hikari каждой реплики
+ * @param healthCheckInterval - как часто проверяются реплики
+ * @param maxLag - допустимое отставание реплики, больше - реплика не используется; 0 - не проверять
+ * @param readYourWrites - сколько после своей записи клиент читает с основной БД; 0 - выключено
+ */
+@ConfigurationProperties(prefix = "todo.replicas")
+public record ReplicaProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue List<String> urls,
+        String username,
+        String password,
+        @DefaultValue("10") int poolSize,
+        @DefaultValue("5s") Duration healthCheckInterval,
+        @DefaultValue("10s") Duration maxLag,
+        @DefaultValue("2s") Duration readYourWrites
+) {
+}
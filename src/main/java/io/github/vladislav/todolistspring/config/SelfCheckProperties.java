@@ -0,0 +1,16 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки проверки конфигурации при старте
+ * @param enabled - выполнять ли проверку
+ * @param failOnWarning - останавливать запуск, если найдены расхождения, а не только писать их в лог
+ */
+@ConfigurationProperties(prefix = "todo.self-check")
+public record SelfCheckProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("false") boolean failOnWarning
+) {
+}
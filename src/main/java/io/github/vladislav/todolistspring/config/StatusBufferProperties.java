@@ -0,0 +1,24 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки отложенной записи смены статуса
+ * @param enabled - включена ли отложенная запись
+ * @param flushInterval - как часто накопленные статусы пишутся в БД
+ * @param maxBatch - максимум задач в одном UPDATE, при таком количестве ожидающих запись начинается сразу
+ * @param capacity - максимум задач, ожидающих записи, включая записываемые сейчас
+ * @param offerTimeout - сколько ждать места в буфере, после чего запрос отклоняется с 503
+ */
+@ConfigurationProperties(prefix = "todo.status-buffer")
+public record StatusBufferProperties(
+        @DefaultValue("false") boolean enabled,
+        @DefaultValue("50ms") Duration flushInterval,
+        @DefaultValue("1000") int maxBatch,
+        @DefaultValue("10000") int capacity,
+        @DefaultValue("1s") Duration offerTimeout
+) {
+}
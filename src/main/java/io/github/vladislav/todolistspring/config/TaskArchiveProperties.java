@@ -0,0 +1,22 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки переноса завершённых задач в архивную секцию
+ * @param enabled - выполнять ли перенос по расписанию
+ * @param after - сколько завершённая задача не должна меняться, чтобы попасть в архив
+ * @param batchSize - задач в одной транзакции
+ * @param maxBatches - максимум транзакций за один запуск, остаток переносится при следующем
+ */
+@ConfigurationProperties(prefix = "todo.archive")
+public record TaskArchiveProperties(
+        @DefaultValue("true") boolean enabled,
+        @DefaultValue("30d") Duration after,
+        @DefaultValue("1000") int batchSize,
+        @DefaultValue("100") int maxBatches
+) {
+}
@@ -0,0 +1,16 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки пакетных операций над задачами
+ * @param chunkSize - количество элементов, обрабатываемых в одной транзакции
+ * @param maxItems - максимальное количество элементов в одном запросе
+ */
+@ConfigurationProperties(prefix = "todo.batch")
+public record TaskBatchProperties(
+        @DefaultValue("500") int chunkSize,
+        @DefaultValue("10000") int maxItems
+) {
+}
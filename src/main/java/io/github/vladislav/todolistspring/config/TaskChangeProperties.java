@@ -0,0 +1,22 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки ленты изменений задач
+ * @param settle - изменения моложе этого интервала не отдаются: номер выдаётся до коммита,
+ *               и транзакция с меньшим номером может закоммититься позже большего.
+ *               Интервал должен превышать самую долгую пишущую транзакцию
+ * @param maxLimit - максимальный размер порции
+ * @param tombstoneRetention - сколько хранятся надгробия и принимаются токены
+ */
+@ConfigurationProperties(prefix = "todo.changes")
+public record TaskChangeProperties(
+        @DefaultValue("2s") Duration settle,
+        @DefaultValue("1000") int maxLimit,
+        @DefaultValue("30d") Duration tombstoneRetention
+) {
+}
@@ -0,0 +1,30 @@
+package io.github.vladislav.todolistspring.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.boot.cache.autoconfigure.CacheManagerCustomizer;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Кэш COUNT(*) по фильтрам со своим коротким TTL, отдельным от кэша задач
+ *
+ * @author Степанов Владислав
+ */
+@Configuration
+public class TaskCountConfig {
+
+    /**
+     * Количество задач по TaskFilterDto
+     */
+    public static final String TASK_COUNTS_CACHE = "task-counts";
+
+    @Bean
+    public CacheManagerCustomizer<CaffeineCacheManager> taskCountsCacheCustomizer(TaskCountProperties properties) {
+        return cacheManager -> cacheManager.registerCustomCache(TASK_COUNTS_CACHE, Caffeine.newBuilder()
+                .maximumSize(1000)
+                .expireAfterWrite(properties.cacheTtl())
+                .recordStats()
+                .build());
+    }
+}
@@ -0,0 +1,22 @@
+package io.github.vladislav.todolistspring.config;
+
+import io.github.vladislav.todolistspring.enums.CountMode;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки подсчёта задач для страниц списка
+ * @param defaultMode - режим, если клиент не передал count
+ * @param cacheTtl - сколько хранится закэшированный COUNT(*) для режима CACHED
+ * @param countersTtl - через сколько счётчики по статусам перечитываются из БД
+ *                    (учитывает запись другими экземплярами приложения)
+ */
+@ConfigurationProperties(prefix = "todo.count")
+public record TaskCountProperties(
+        @DefaultValue("EXACT") CountMode defaultMode,
+        @DefaultValue("10s") Duration cacheTtl,
+        @DefaultValue("5m") Duration countersTtl
+) {
+}
@@ -0,0 +1,23 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+import java.time.Duration;
+
+/**
+ * Настройки потока событий задач (SSE)
+ * @param bufferSize - сколько событий может ждать отправки одному подписчику,
+ *                   при переполнении подписчик отключается как медленный
+ * @param maxSubscribers - максимум одновременных подписчиков на экземпляр
+ * @param timeout - время жизни подключения, после которого клиент переподключается
+ * @param heartbeat - интервал комментариев-пингов, по которым обнаруживаются оборванные подключения
+ */
+@ConfigurationProperties(prefix = "todo.events")
+public record TaskEventProperties(
+        @DefaultValue("256") int bufferSize,
+        @DefaultValue("10000") int maxSubscribers,
+        @DefaultValue("30m") Duration timeout,
+        @DefaultValue("15s") Duration heartbeat
+) {
+}
@@ -0,0 +1,16 @@
+package io.github.vladislav.todolistspring.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.context.properties.bind.DefaultValue;
+
+/**
+ * Настройки потоковой выгрузки задач
+ * @param fetchSize - количество строк, получаемых из курсора БД за раз
+ * @param flushEvery - через сколько строк сбрасывать буфер в ответ
+ */
+@ConfigurationProperties(prefix = "todo.export")
+public record TaskExportProperties(
+        @DefaultValue("1000") int fetchSize,
+        @DefaultValue("1000") int flushEvery
+) {
+}
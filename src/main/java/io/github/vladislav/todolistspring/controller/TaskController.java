@@ -1,29 +1,69 @@
 package io.github.vladislav.todolistspring.controller;
 
+import io.github.vladislav.todolistspring.converter.TaskColumnsCodec;
+import io.github.vladislav.todolistspring.dto.CursorPageResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBulkStatusDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBulkStatusResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangesDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskColumnsDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
 import io.github.vladislav.todolistspring.dto.PageResponseDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskVersionDto;
 import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.enums.CountMode;
+import io.github.vladislav.todolistspring.enums.ExportFormat;
+import io.github.vladislav.todolistspring.enums.TaskField;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.PreconditionFailedException;
 import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.pagination.TaskCursor;
+import io.github.vladislav.todolistspring.pagination.TaskCursorCodec;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursorCodec;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import io.github.vladislav.todolistspring.service.TaskChangeService;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import io.github.vladislav.todolistspring.service.TaskExportService;
+import io.github.vladislav.todolistspring.service.TaskIdempotencyService;
 import io.github.vladislav.todolistspring.service.TaskService;
+import io.github.vladislav.todolistspring.service.TaskStatusBuffer;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
 import lombok.RequiredArgsConstructor;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Set;
 import java.util.UUID;
 
 /**
@@ -34,31 +74,175 @@ import java.util.UUID;
 @RequiredArgsConstructor
 public class TaskController {
 
+    private static final int MAX_SCROLL_SIZE = 1000;
+    private static final int MAX_QUERY_LENGTH = 200;
+
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskExportService taskExportService;
+    private final TaskCountService taskCountService;
+    private final TaskChangeService taskChangeService;
+    private final TaskIdempotencyService taskIdempotencyService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskStatusBuffer taskStatusBuffer;
     private final TaskMapper taskMapper;
 
+    /**
+     * Список читается проекцией без загрузки сущностей, fields ограничивает набор колонок,
+     * count задаёт способ подсчёта total
+     */
     @GetMapping
-    public PageResponseDto<TaskDto> getAllTasks(Pageable pageable,
-                                                @RequestParam(required = false) TaskStatus status) {
-        TaskFilterDto filter = TaskFilterDto.builder()
-                .status(status)
-                .build();
+    public PageResponseDto<?> getAllTasks(Pageable pageable,
+                                          @RequestParam(required = false) Set<String> fields,
+                                          @RequestParam(required = false) CountMode count,
+                                          @RequestParam(required = false) TaskStatus status,
+                                          @RequestParam(required = false) Set<TaskStatus> statuses,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                          @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                          @RequestParam(required = false) Boolean overdue,
+                                          @RequestParam(required = false) String titlePrefix,
+                                          @RequestParam(required = false) Boolean includeArchived) {
+        TaskFilterDto filter = filter(status, statuses, dueFrom, dueTo, overdue, titlePrefix, includeArchived);
 
-        Page<Task> res = taskService.getAllTasks(filter, pageable);
-        return new PageResponseDto<>(
+        Slice<?> page = fields == null || fields.isEmpty()
+                ? taskService.getTaskDtos(filter, pageable)
+                : taskService.getTaskFields(filter, TaskField.parse(fields), pageable);
+        return toResponse(page, taskCountService.count(filter, count, page));
+    }
+
+    /**
+     * Та же страница, что и {@link #getAllTasks}, по колонкам: JSON без повторения имён полей
+     * или двоичный формат при Accept: application/vnd.todo.task-columns
+     */
+    @GetMapping(path = "/columns", produces = {MediaType.APPLICATION_JSON_VALUE, TaskColumnsCodec.MEDIA_TYPE_VALUE})
+    public TaskColumnsDto getTaskColumns(Pageable pageable,
+                                         @RequestParam(required = false) CountMode count,
+                                         @RequestParam(required = false) TaskStatus status,
+                                         @RequestParam(required = false) Set<TaskStatus> statuses,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                         @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                         @RequestParam(required = false) Boolean overdue,
+                                         @RequestParam(required = false) String titlePrefix,
+                                         @RequestParam(required = false) Boolean includeArchived) {
+        TaskFilterDto filter = filter(status, statuses, dueFrom, dueTo, overdue, titlePrefix, includeArchived);
+
+        Slice<TaskDto> page = taskService.getTaskDtos(filter, pageable);
+        return toColumns(page, taskCountService.count(filter, count, page));
+    }
+
+    @GetMapping("/scroll")
+    public CursorPageResponseDto<TaskDto> scrollTasks(@RequestParam(required = false) String cursor,
+                                                      @RequestParam(defaultValue = "20") int size,
+                                                      @RequestParam(defaultValue = "dueDate") String sortBy,
+                                                      @RequestParam(defaultValue = "ASC") Sort.Direction direction,
+                                                      @RequestParam(required = false) TaskStatus status,
+                                                      @RequestParam(required = false) Set<TaskStatus> statuses,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                      @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                      @RequestParam(required = false) Boolean overdue,
+                                                      @RequestParam(required = false) String titlePrefix,
+                                                      @RequestParam(required = false) Boolean includeArchived) {
+        TaskFilterDto filter = filter(status, statuses, dueFrom, dueTo, overdue, titlePrefix, includeArchived);
+        // Сортировка зашита в курсор, поэтому для последующих страниц sortBy и direction игнорируются
+        TaskCursor position = cursor == null
+                ? TaskCursorCodec.first(sortBy, direction)
+                : TaskCursorCodec.decode(cursor);
+        int limit = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+
+        Window<Task> res = taskService.scrollTasks(filter, position, limit);
+        String nextCursor = res.hasNext() && !res.isEmpty()
+                ? TaskCursorCodec.encode(position, res.getContent().getLast())
+                : null;
+        return new CursorPageResponseDto<>(
                 res.getContent().stream()
                         .map(taskMapper::toDto)
                         .toList(),
-                res.getNumber(),
-                res.getSize(),
-                res.getTotalElements(),
-                res.getTotalPages()
+                limit,
+                res.hasNext(),
+                nextCursor
         );
     }
 
+    /**
+     * Полнотекстовый поиск по названию и описанию, результаты упорядочены по релевантности.
+     * Фильтры те же, что у списка
+     */
+    @GetMapping("/search")
+    public CursorPageResponseDto<TaskSearchHitDto> searchTasks(@RequestParam @NotBlank @Size(max = MAX_QUERY_LENGTH) String q,
+                                                               @RequestParam(required = false) String cursor,
+                                                               @RequestParam(defaultValue = "20") int size,
+                                                               @RequestParam(required = false) TaskStatus status,
+                                                               @RequestParam(required = false) Set<TaskStatus> statuses,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                                                               @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                                                               @RequestParam(required = false) Boolean overdue,
+                                                               @RequestParam(required = false) String titlePrefix,
+                                                               @RequestParam(required = false) Boolean includeArchived) {
+        TaskFilterDto filter = filter(status, statuses, dueFrom, dueTo, overdue, titlePrefix, includeArchived);
+        TaskSearchCursor after = cursor == null ? null : TaskSearchCursorCodec.decode(cursor, q);
+        int limit = Math.clamp(size, 1, MAX_SCROLL_SIZE);
+
+        Window<TaskSearchHitDto> res = taskService.searchTasks(filter, q, after, limit);
+        String nextCursor = null;
+        if (res.hasNext() && !res.isEmpty()) {
+            TaskSearchHitDto last = res.getContent().getLast();
+            nextCursor = TaskSearchCursorCodec.encode(new TaskSearchCursor(q.hashCode(), last.rank(), last.id()));
+        }
+        return new CursorPageResponseDto<>(res.getContent(), limit, res.hasNext(), nextCursor);
+    }
+
+    /**
+     * Выгрузка пишется прямо в ответ по мере чтения из БД, без сборки страницы в памяти
+     */
+    @GetMapping("/export")
+    public void exportTasks(@RequestParam(defaultValue = "NDJSON") ExportFormat format,
+                            @RequestParam(required = false) TaskStatus status,
+                            @RequestParam(required = false) Set<TaskStatus> statuses,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueFrom,
+                            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate dueTo,
+                            @RequestParam(required = false) Boolean overdue,
+                            @RequestParam(required = false) String titlePrefix,
+                            @RequestParam(required = false) Boolean includeArchived,
+                            HttpServletResponse response) throws IOException {
+        TaskFilterDto filter = filter(status, statuses, dueFrom, dueTo, overdue, titlePrefix, includeArchived);
+
+        response.setContentType(format.getContentType());
+        response.setCharacterEncoding("UTF-8");
+        taskExportService.export(filter, format, response.getOutputStream());
+    }
+
+    /**
+     * Изменения после токена: созданные, изменённые и удалённые задачи.
+     * Без since - все задачи с начала ленты
+     */
+    @GetMapping("/changes")
+    public TaskChangesDto getChanges(@RequestParam(required = false) String since,
+                                     @RequestParam(defaultValue = "500") int limit) {
+        return taskChangeService.changes(since, limit);
+    }
+
+    /**
+     * Поток событий о задачах (SSE). statuses фильтрует создание и изменение задач,
+     * смену статуса и удаление получают все подписчики
+     */
+    @GetMapping(path = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribe(@RequestParam(required = false) Set<TaskStatus> statuses) {
+        return taskEventBroadcaster.subscribe(statuses);
+    }
+
+    /**
+     * ETag - версия задачи, Last-Modified - время последнего изменения.
+     * На If-None-Match/If-Modified-Since с совпавшим значением Spring сам отвечает 304 без тела.
+     * Статус задачи из буфера записывается до транзакции сервиса, чтобы ETag его учитывал
+     */
     @GetMapping("/{id}")
-    public TaskDto getTask(@PathVariable UUID id) {
-        return taskMapper.toDto(taskService.getTaskById(id));
+    public ResponseEntity<TaskDto> getTask(@PathVariable UUID id) {
+        taskStatusBuffer.flush(id);
+        TaskVersionDto task = taskService.getTaskVersion(id);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(task.version()))
+                .lastModified(task.updatedAt())
+                .body(task.task());
     }
 
     @DeleteMapping("/{id}")
@@ -67,20 +251,131 @@ public class TaskController {
         taskService.deleteTask(id);
     }
 
+    /**
+     * Повтор с тем же Idempotency-Key возвращает ответ на первый запрос, не создавая задачу заново
+     */
     @PostMapping("/create")
-    public TaskDto createTask(@Valid @RequestBody TaskDto taskDto) {
-        return taskMapper.toDto(taskService.createTask(taskDto));
+    public TaskDto createTask(@Valid @RequestBody TaskDto taskDto,
+                              @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey) {
+        return taskIdempotencyService.createTask(taskDto, idempotencyKey);
+    }
+
+    @PostMapping("/batch/create")
+    public TaskBatchResponseDto createTasks(@RequestBody List<TaskDto> taskDtos) {
+        return taskBatchService.createTasks(taskDtos);
     }
 
+    @PatchMapping("/batch/update")
+    public TaskBatchResponseDto updateTasks(@RequestBody List<TaskBatchPatchDto> patches) {
+        return taskBatchService.updateTasks(patches);
+    }
+
+    @PostMapping("/batch/delete")
+    public TaskBatchResponseDto deleteTasks(@RequestBody List<UUID> ids) {
+        return taskBatchService.deleteTasks(ids);
+    }
+
+    /**
+     * If-Match с устаревшей версией отклоняется с 412 без блокировок в БД
+     */
     @PatchMapping("/update/{id}")
-    public TaskDto updateTask(@Valid @RequestBody TaskPatchDto taskDto, @PathVariable UUID id) {
-        return taskMapper.toDto(taskService.updateTask(taskDto, id));
+    public ResponseEntity<TaskDto> updateTask(@Valid @RequestBody TaskPatchDto taskDto,
+                                              @PathVariable UUID id,
+                                              @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        // Версия из If-Match могла прийти из ответа на смену статуса, ещё лежащую в буфере
+        taskStatusBuffer.flush(id);
+        return versioned(taskService.updateTask(taskDto, id, expectedVersion(ifMatch)));
     }
 
     @PatchMapping("/update/status/{id}")
-    public TaskDto updateTaskStatus(@Valid @RequestBody TaskStatus status, @PathVariable UUID id) {
-        return taskMapper.toDto(taskService.updateTaskStatus(status, id));
+    public ResponseEntity<TaskDto> updateTaskStatus(@Valid @RequestBody TaskStatus status,
+                                                    @PathVariable UUID id,
+                                                    @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        return versioned(taskService.updateTaskStatus(status, id, expectedVersion(ifMatch)));
     }
 
-}
+    @PatchMapping("/update/status")
+    public TaskBulkStatusResponseDto updateTasksStatus(@Valid @RequestBody TaskBulkStatusDto bulkStatus) {
+        taskStatusBuffer.flush();
+        return new TaskBulkStatusResponseDto(taskService.updateTasksStatus(bulkStatus));
+    }
+
+    /**
+     * Смена статуса, отложенная в буфер, возвращается без ETag и Last-Modified:
+     * версия задачи станет известна только после записи
+     */
+    private ResponseEntity<TaskDto> versioned(Task task) {
+        if (task.getVersion() == null) {
+            return ResponseEntity.ok(taskMapper.toDto(task));
+        }
+        TaskVersionDto res = taskMapper.toVersionDto(task);
+        return ResponseEntity.ok()
+                .eTag(String.valueOf(res.version()))
+                .lastModified(res.updatedAt())
+                .body(res.task());
+    }
+
+    /**
+     * Версия из If-Match: кавычки и W/ снимаются, отсутствие заголовка и * - без проверки
+     */
+    private Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        tag = tag.replace("\"", "");
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException("Неверный If-Match: " + ifMatch);
+        }
+    }
+
+    private <T> PageResponseDto<T> toResponse(Slice<T> page, Long total) {
+        return new PageResponseDto<>(
+                page.getContent(),
+                page.getNumber(),
+                page.getSize(),
+                total,
+                total == null ? null : (int) Math.ceilDiv(total, page.getSize()),
+                page.hasNext()
+        );
+    }
+
+    private TaskColumnsDto toColumns(Slice<TaskDto> page, Long total) {
+        List<TaskDto> content = page.getContent();
+        return TaskColumnsDto.builder()
+                .page(page.getNumber())
+                .size(page.getSize())
+                .totalElements(total)
+                .totalPages(total == null ? null : (int) Math.ceilDiv(total, page.getSize()))
+                .hasNext(page.hasNext())
+                .title(content.stream().map(TaskDto::title).toList())
+                .description(content.stream().map(TaskDto::description).toList())
+                .dueDate(content.stream().map(TaskDto::dueDate).toList())
+                .status(content.stream().map(TaskDto::status).toList())
+                .build();
+    }
 
+    private TaskFilterDto filter(TaskStatus status,
+                                 Set<TaskStatus> statuses,
+                                 LocalDate dueFrom,
+                                 LocalDate dueTo,
+                                 Boolean overdue,
+                                 String titlePrefix,
+                                 Boolean includeArchived) {
+        return TaskFilterDto.builder()
+                .status(status)
+                .statuses(statuses)
+                .dueFrom(dueFrom)
+                .dueTo(dueTo)
+                .overdue(overdue)
+                .titlePrefix(titlePrefix)
+                .includeArchived(includeArchived)
+                .build();
+    }
+
+}
@@ -0,0 +1,197 @@
+package io.github.vladislav.todolistspring.converter;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskColumnsDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import lombok.experimental.UtilityClass;
+import org.springframework.http.MediaType;
+
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Двоичный формат {@link TaskColumnsDto} (application/vnd.todo.task-columns). Схема фиксирована,
+ * поэтому в потоке нет ни имён полей, ни разделителей:
+ * <pre>
+ * byte    версия (1)
+ * varint  page, size, totalElements + 1, totalPages + 1 (0 - неизвестно), hasNext (0/1)
+ * varint  количество задач n
+ * n строк title, n строк description - varint длина UTF-8 + 1 (0 - null), затем байты
+ * n дат dueDate                      - varint день от 1970-01-01 + 1 (0 - null)
+ * n байт status                      - порядковый номер TaskStatus + 1 (0 - null)
+ * </pre>
+ * Порядок значений TaskStatus - часть формата: новые статусы добавляются только в конец
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class TaskColumnsCodec {
+
+    public static final String MEDIA_TYPE_VALUE = "application/vnd.todo.task-columns";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(MEDIA_TYPE_VALUE);
+
+    private static final byte VERSION = 1;
+    private static final TaskStatus[] STATUSES = TaskStatus.values();
+
+    /**
+     * @param columns - страница задач
+     * @param out - поток ответа, не закрывается
+     */
+    public void encode(TaskColumnsDto columns, OutputStream out) throws IOException {
+        Writer writer = new Writer(out);
+        writer.writeByte(VERSION);
+        writer.writeVarLong(columns.page());
+        writer.writeVarLong(columns.size());
+        writer.writeVarLong(columns.totalElements() == null ? 0 : columns.totalElements() + 1);
+        writer.writeVarLong(columns.totalPages() == null ? 0 : columns.totalPages() + 1);
+        writer.writeByte(columns.hasNext() ? 1 : 0);
+        writer.writeVarLong(columns.title().size());
+        for (String title : columns.title()) {
+            writer.writeString(title);
+        }
+        for (String description : columns.description()) {
+            writer.writeString(description);
+        }
+        for (LocalDate dueDate : columns.dueDate()) {
+            writer.writeVarLong(dueDate == null ? 0 : dueDate.toEpochDay() + 1);
+        }
+        for (TaskStatus status : columns.status()) {
+            writer.writeByte(status == null ? 0 : status.ordinal() + 1);
+        }
+        writer.flush();
+    }
+
+    /**
+     * @param in - поток в формате {@link #encode}
+     * @return - страница задач
+     */
+    public TaskColumnsDto decode(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        byte version = data.readByte();
+        if (version != VERSION) {
+            throw new IOException("Неизвестная версия формата: " + version);
+        }
+        int page = (int) readVarLong(data);
+        int size = (int) readVarLong(data);
+        long totalElements = readVarLong(data);
+        long totalPages = readVarLong(data);
+        boolean hasNext = data.readByte() == 1;
+        int n = (int) readVarLong(data);
+
+        List<String> titles = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            titles.add(readString(data));
+        }
+        List<String> descriptions = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            descriptions.add(readString(data));
+        }
+        List<LocalDate> dueDates = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            long day = readVarLong(data);
+            dueDates.add(day == 0 ? null : LocalDate.ofEpochDay(day - 1));
+        }
+        List<TaskStatus> statuses = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int status = data.readUnsignedByte();
+            statuses.add(status == 0 ? null : STATUSES[status - 1]);
+        }
+        return TaskColumnsDto.builder()
+                .page(page)
+                .size(size)
+                .totalElements(totalElements == 0 ? null : totalElements - 1)
+                .totalPages(totalPages == 0 ? null : (int) (totalPages - 1))
+                .hasNext(hasNext)
+                .title(titles)
+                .description(descriptions)
+                .dueDate(dueDates)
+                .status(statuses)
+                .build();
+    }
+
+    private String readString(DataInputStream data) throws IOException {
+        long length = readVarLong(data);
+        if (length == 0) {
+            return null;
+        }
+        byte[] bytes = new byte[(int) (length - 1)];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private long readVarLong(DataInputStream data) throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = data.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new EOFException("Слишком длинное число");
+    }
+
+    /**
+     * Пишет в поток порциями по 8 КБ: запись по байту в поток ответа или gzip стоила бы
+     * дороже самого кодирования
+     */
+    private static final class Writer {
+        private final OutputStream out;
+        private final byte[] buffer = new byte[8192];
+        private int position;
+
+        Writer(OutputStream out) {
+            this.out = out;
+        }
+
+        void writeByte(int value) throws IOException {
+            if (position == buffer.length) {
+                flush();
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        /**
+         * Неотрицательное число по 7 бит в байте, старший бит - признак продолжения
+         */
+        void writeVarLong(long value) throws IOException {
+            if (buffer.length - position < 10) {
+                flush();
+            }
+            while ((value & ~0x7FL) != 0) {
+                buffer[position++] = (byte) ((value & 0x7F) | 0x80);
+                value >>>= 7;
+            }
+            buffer[position++] = (byte) value;
+        }
+
+        void writeString(String value) throws IOException {
+            if (value == null) {
+                writeByte(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarLong(bytes.length + 1L);
+            if (bytes.length > buffer.length - position) {
+                flush();
+                if (bytes.length > buffer.length) {
+                    out.write(bytes);
+                    return;
+                }
+            }
+            System.arraycopy(bytes, 0, buffer, position, bytes.length);
+            position += bytes.length;
+        }
+
+        void flush() throws IOException {
+            out.write(buffer, 0, position);
+            position = 0;
+        }
+    }
+}
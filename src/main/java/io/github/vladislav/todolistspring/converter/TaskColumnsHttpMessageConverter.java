@@ -0,0 +1,36 @@
+package io.github.vladislav.todolistspring.converter;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskColumnsDto;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.converter.AbstractHttpMessageConverter;
+
+import java.io.IOException;
+
+/**
+ * Отдаёт {@link TaskColumnsDto} в двоичном формате {@link TaskColumnsCodec}, если клиент
+ * прислал Accept: application/vnd.todo.task-columns. Без него та же страница уходит в JSON
+ *
+ * @author Степанов Владислав
+ */
+public class TaskColumnsHttpMessageConverter extends AbstractHttpMessageConverter<TaskColumnsDto> {
+
+    public TaskColumnsHttpMessageConverter() {
+        super(TaskColumnsCodec.MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return TaskColumnsDto.class == clazz;
+    }
+
+    @Override
+    protected TaskColumnsDto readInternal(Class<? extends TaskColumnsDto> clazz, HttpInputMessage inputMessage) throws IOException {
+        return TaskColumnsCodec.decode(inputMessage.getBody());
+    }
+
+    @Override
+    protected void writeInternal(TaskColumnsDto columns, HttpOutputMessage outputMessage) throws IOException {
+        TaskColumnsCodec.encode(columns, outputMessage.getBody());
+    }
+}
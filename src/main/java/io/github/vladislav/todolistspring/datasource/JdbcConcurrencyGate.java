@@ -0,0 +1,139 @@
+package io.github.vladislav.todolistspring.datasource;
+
+import io.github.vladislav.todolistspring.admission.RequestDeadline;
+import io.github.vladislav.todolistspring.config.JdbcGateProperties;
+import io.github.vladislav.todolistspring.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Ограничитель одновременно открытых соединений с БД. На виртуальных потоках число
+ * одновременных запросов не ограничено пулом Tomcat, и без него лишние потоки
+ * ждали бы соединения внутри Hikari до connection-timeout. Здесь они ждут в честной
+ * очереди не дольше acquireTimeout, а затем получают 503.
+ * Место занимается при выдаче соединения и освобождается при его закрытии, то есть на всю
+ * транзакцию, включая чтение потоковой выгрузки. Отказ возможен только до первого запроса транзакции.
+ * Соединения, взятые потоком, который уже держит место (REQUIRES_NEW), повторно место не занимают
+ *
+ * @author Степанов Владислав
+ */
+public class JdbcConcurrencyGate extends DelegatingDataSource {
+    /**
+     * Число открытых соединений потока. Счётчик запоминается в соединении,
+     * потому что закрыть его может и другой поток
+     */
+    private static final ThreadLocal<AtomicInteger> OPEN = ThreadLocal.withInitial(AtomicInteger::new);
+
+    private final Semaphore semaphore;
+    private final long timeoutNanos;
+    private final Timer waitTimer;
+    private final Counter rejected;
+
+    public JdbcConcurrencyGate(DataSource target, JdbcGateProperties properties, MeterRegistry registry) {
+        super(target);
+        this.semaphore = new Semaphore(properties.permits(), true);
+        this.timeoutNanos = properties.acquireTimeout().toNanos();
+        this.waitTimer = Timer.builder("todo.jdbc.gate.wait")
+                .description("Ожидание места в ограничителе соединений с БД")
+                .register(registry);
+        this.rejected = Counter.builder("todo.jdbc.gate.rejected")
+                .description("Запросы соединения, отклонённые по таймауту ожидания")
+                .register(registry);
+        Gauge.builder("todo.jdbc.gate.available", semaphore, Semaphore::availablePermits)
+                .description("Свободные места в ограничителе соединений с БД")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        AtomicInteger open = OPEN.get();
+        boolean permit = acquireIfFirst(open);
+        try {
+            return gated(super.getConnection(), open, permit);
+        } catch (SQLException | RuntimeException e) {
+            if (permit) {
+                semaphore.release();
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        AtomicInteger open = OPEN.get();
+        boolean permit = acquireIfFirst(open);
+        try {
+            return gated(super.getConnection(username, password), open, permit);
+        } catch (SQLException | RuntimeException e) {
+            if (permit) {
+                semaphore.release();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * @return - true, если занято место: у потока ещё нет открытых соединений
+     */
+    private boolean acquireIfFirst(AtomicInteger open) throws SQLException {
+        if (open.get() > 0) {
+            return false;
+        }
+        long start = System.nanoTime();
+        // Дольше крайнего срока запроса ждать бессмысленно: клиент уже не получит ответ
+        long wait = Math.min(timeoutNanos, RequestDeadline.remainingNanos());
+        boolean acquired;
+        try {
+            acquired = semaphore.tryAcquire(wait, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SQLException("Ожидание соединения прервано", e);
+        }
+        waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (!acquired) {
+            rejected.increment();
+            throw new DatabaseBusyException("База данных перегружена, повторите запрос позже");
+        }
+        return true;
+    }
+
+    /**
+     * Соединение, которое при первом close отдаёт место в ограничителе
+     */
+    private Connection gated(Connection connection, AtomicInteger open, boolean permit) {
+        open.incrementAndGet();
+        AtomicBoolean closed = new AtomicBoolean();
+        return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                (proxy, method, args) -> {
+                    if (method.getName().equals("close") && closed.compareAndSet(false, true)) {
+                        try {
+                            connection.close();
+                        } finally {
+                            open.decrementAndGet();
+                            if (permit) {
+                                semaphore.release();
+                            }
+                        }
+                        return null;
+                    }
+                    try {
+                        return method.invoke(connection, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                });
+    }
+}
@@ -0,0 +1,139 @@
+package io.github.vladislav.todolistspring.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Источник соединений для readOnly-транзакций: реплики по кругу, только исправные.
+ * Если исправных реплик нет, реплика не выдала соединение или клиент в окне
+ * {@link ReadYourWrites}, соединение берётся из основной БД.
+ * Исправность проверяется по расписанию: соединение и отставание воспроизведения WAL
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+public class ReadReplicaDataSource extends AbstractDataSource implements AutoCloseable {
+    /**
+     * Если реплика воспроизвела всё полученное, она не отстаёт, даже если последняя
+     * транзакция была давно (pg_last_xact_replay_timestamp на простаивающей основной БД)
+     */
+    private static final String LAG_SQL = """
+            select case when pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() then 0
+                        else coalesce(extract(epoch from now() - pg_last_xact_replay_timestamp()), 0)
+                   end
+            """;
+
+    private final DataSource primary;
+    private final List<Replica> replicas;
+    private final Duration maxLag;
+    private final AtomicInteger next = new AtomicInteger();
+    private final Counter fallbacks;
+
+    public ReadReplicaDataSource(DataSource primary,
+                                 Map<String, DataSource> replicas,
+                                 Duration maxLag,
+                                 MeterRegistry registry) {
+        this.primary = primary;
+        this.replicas = replicas.entrySet().stream()
+                .map(e -> new Replica(e.getKey(), e.getValue()))
+                .toList();
+        this.maxLag = maxLag;
+        this.fallbacks = Counter.builder("todo.replicas.fallbacks")
+                .description("Чтения, отправленные на основную БД из-за недоступных реплик")
+                .register(registry);
+        Gauge.builder("todo.replicas.healthy", this, ReadReplicaDataSource::healthyCount)
+                .description("Исправные реплики")
+                .register(registry);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (ReadYourWrites.isActive() || replicas.isEmpty()) {
+            return primary.getConnection();
+        }
+        int start = Math.floorMod(next.getAndIncrement(), replicas.size());
+        for (int i = 0; i < replicas.size(); i++) {
+            Replica replica = replicas.get((start + i) % replicas.size());
+            if (!replica.healthy) {
+                continue;
+            }
+            try {
+                return replica.dataSource.getConnection();
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+        fallbacks.increment();
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Проверяет все реплики. Неисправная реплика возвращается в ротацию при следующей успешной проверке
+     */
+    @Scheduled(fixedDelayString = "${todo.replicas.health-check-interval:5s}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            try (Connection connection = replica.dataSource.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet rs = statement.executeQuery(LAG_SQL)) {
+                rs.next();
+                double lagSeconds = rs.getDouble(1);
+                if (!maxLag.isZero() && lagSeconds * 1000 > maxLag.toMillis()) {
+                    markDown(replica, "отставание " + lagSeconds + " с");
+                } else if (!replica.healthy) {
+                    replica.healthy = true;
+                    log.info("Реплика {} снова используется для чтения", replica.name);
+                }
+            } catch (SQLException e) {
+                markDown(replica, e.getMessage());
+            }
+        }
+    }
+
+    public int healthyCount() {
+        return (int) replicas.stream().filter(r -> r.healthy).count();
+    }
+
+    @Override
+    public void close() throws Exception {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private void markDown(Replica replica, String reason) {
+        if (replica.healthy) {
+            replica.healthy = false;
+            log.warn("Реплика {} исключена из чтения: {}", replica.name, reason);
+        }
+    }
+
+    @RequiredArgsConstructor
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+    }
+}
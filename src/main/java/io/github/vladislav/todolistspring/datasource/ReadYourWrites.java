@@ -0,0 +1,26 @@
+package io.github.vladislav.todolistspring.datasource;
+
+import lombok.experimental.UtilityClass;
+
+/**
+ * Признак текущего запроса: клиент недавно писал, и читать нужно с основной БД,
+ * потому что реплика может ещё не получить его запись
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class ReadYourWrites {
+    private final ThreadLocal<Boolean> PRIMARY = new ThreadLocal<>();
+
+    public boolean isActive() {
+        return Boolean.TRUE.equals(PRIMARY.get());
+    }
+
+    public void activate() {
+        PRIMARY.set(Boolean.TRUE);
+    }
+
+    public void clear() {
+        PRIMARY.remove();
+    }
+}
@@ -0,0 +1,64 @@
+package io.github.vladislav.todolistspring.datasource;
+
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+
+import java.time.Duration;
+import java.util.Set;
+
+/**
+ * Окно чтения своих записей. Изменяющий запрос получает cookie со сроком окна,
+ * а чтения с действующей cookie идут на основную БД. Срок хранится у клиента,
+ * поэтому окно работает при любом количестве экземпляров приложения
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+public class ReadYourWritesInterceptor implements HandlerInterceptor {
+    public static final String COOKIE = "todo-ryw";
+    private static final Set<String> SAFE_METHODS = Set.of("GET", "HEAD", "OPTIONS");
+
+    private final Duration window;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        long now = System.currentTimeMillis();
+        if (!SAFE_METHODS.contains(request.getMethod())) {
+            // Cookie ставится до обработки: после записи тела ответа заголовки уже не добавить
+            Cookie cookie = new Cookie(COOKIE, String.valueOf(now + window.toMillis()));
+            cookie.setPath("/");
+            cookie.setHttpOnly(true);
+            cookie.setMaxAge((int) Math.max(1, window.toSeconds()));
+            response.addCookie(cookie);
+            return true;
+        }
+        if (request.getCookies() == null) {
+            return true;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName()) && until(cookie.getValue()) > now) {
+                ReadYourWrites.activate();
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        ReadYourWrites.clear();
+    }
+
+    private long until(String value) {
+        try {
+            return Long.parseLong(value);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package io.github.vladislav.todolistspring.dto;
+
+import java.util.List;
+
+/**
+ * Ответ для курсорной (keyset) пагинации: без общего количества элементов,
+ * поэтому не требует COUNT(*) на каждую страницу
+ */
+public record CursorPageResponseDto<T>(
+        List<T> content,
+        int size,
+        boolean hasNext,
+        String nextCursor
+) {}
@@ -2,10 +2,14 @@ package io.github.vladislav.todolistspring.dto;
 
 import java.util.List;
 
+/**
+ * totalElements и totalPages пусты при count=NONE, при count=ESTIMATED - приблизительные
+ */
 public record PageResponseDto<T>(
         List<T> content,
         int page,
         int size,
-        long totalElements,
-        int totalPages
+        Long totalElements,
+        Integer totalPages,
+        boolean hasNext
 ) {}
@@ -0,0 +1,16 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Элемент пакетного обновления: id задачи и изменения для неё
+ */
+@Builder
+public record TaskBatchPatchDto(
+        @NotNull UUID id,
+        @NotNull @Valid TaskPatchDto patch) {
+}
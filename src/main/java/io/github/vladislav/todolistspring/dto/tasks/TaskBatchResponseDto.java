@@ -0,0 +1,10 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import java.util.List;
+
+public record TaskBatchResponseDto(
+        int total,
+        int succeeded,
+        int failed,
+        List<TaskBatchResultDto> items
+) {}
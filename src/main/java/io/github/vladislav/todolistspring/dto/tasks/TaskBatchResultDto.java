@@ -0,0 +1,21 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Результат обработки одного элемента пакетного запроса
+ * @param index - позиция элемента во входном массиве
+ * @param id - id задачи (для создания - присвоенный при сохранении)
+ * @param task - состояние задачи после операции, если оно есть
+ * @param error - причина ошибки, если элемент не обработан
+ */
+@Builder
+public record TaskBatchResultDto(
+        int index,
+        UUID id,
+        boolean success,
+        TaskDto task,
+        String error) {
+}
@@ -0,0 +1,20 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.Builder;
+
+import java.time.LocalDate;
+
+/**
+ * Массовый перевод задач из одного статуса в другой
+ * @param status - текущий статус задач
+ * @param dueBefore - только задачи со сроком раньше этой даты (опционально)
+ * @param newStatus - новый статус
+ */
+@Builder
+public record TaskBulkStatusDto(
+        @NotNull TaskStatus status,
+        LocalDate dueBefore,
+        @NotNull TaskStatus newStatus) {
+}
@@ -0,0 +1,5 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+public record TaskBulkStatusResponseDto(
+        long updated
+) {}
@@ -0,0 +1,18 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import java.util.UUID;
+
+/**
+ * Изменение задачи в ленте: создание или изменение - текущее состояние задачи,
+ * удаление - только id
+ * @param id - id задачи
+ * @param deleted - задача удалена
+ * @param version - версия задачи, для удалённой null
+ * @param task - задача, для удалённой null
+ */
+public record TaskChangeDto(
+        UUID id,
+        boolean deleted,
+        Long version,
+        TaskDto task) {
+}
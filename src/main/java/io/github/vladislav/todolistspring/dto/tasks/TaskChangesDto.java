@@ -0,0 +1,15 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import java.util.List;
+
+/**
+ * Порция ленты изменений
+ * @param changes - изменения в порядке их номеров
+ * @param nextToken - токен для следующего запроса, выдаётся и для пустой порции
+ * @param hasMore - есть ещё изменения, их нужно забрать сразу с nextToken
+ */
+public record TaskChangesDto(
+        List<TaskChangeDto> changes,
+        String nextToken,
+        boolean hasMore) {
+}
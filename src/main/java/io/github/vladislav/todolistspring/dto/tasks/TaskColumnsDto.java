@@ -0,0 +1,26 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import io.github.vladislav.todolistspring.dto.PageResponseDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import lombok.Builder;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Страница задач по колонкам: i-я задача - i-е элементы списков. В отличие от {@link PageResponseDto}
+ * имена полей не повторяются для каждой задачи. Поля страницы - как в {@link PageResponseDto}
+ */
+@Builder
+public record TaskColumnsDto(
+        int page,
+        int size,
+        Long totalElements,
+        Integer totalPages,
+        boolean hasNext,
+        List<String> title,
+        List<String> description,
+        List<LocalDate> dueDate,
+        List<TaskStatus> status
+) {
+}
@@ -0,0 +1,25 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import io.github.vladislav.todolistspring.enums.TaskEventType;
+import lombok.Builder;
+
+import java.util.UUID;
+
+/**
+ * Событие об изменении задачи для подписчиков SSE
+ * @param type - тип события
+ * @param id - id задачи, для массовой смены статуса null
+ * @param version - версия задачи после изменения, для удаления и массовой смены статуса null
+ * @param task - задача после изменения, для удаления и массовой смены статуса null
+ * @param bulk - условия массовой смены статуса
+ * @param updated - количество задач, затронутых массовой сменой статуса
+ */
+@Builder
+public record TaskEventDto(
+        TaskEventType type,
+        UUID id,
+        Long version,
+        TaskDto task,
+        TaskBulkStatusDto bulk,
+        Long updated) {
+}
@@ -0,0 +1,18 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+/**
+ * Строка выгрузки {@link Task}
+ */
+public record TaskExportDto(
+        UUID id,
+        String title,
+        String description,
+        LocalDate dueDate,
+        TaskStatus status) {
+}
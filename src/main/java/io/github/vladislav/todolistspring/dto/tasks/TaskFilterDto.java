@@ -3,9 +3,27 @@ package io.github.vladislav.todolistspring.dto.tasks;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
 import lombok.Builder;
 
-// DTO для того, чтобы в будущем можно расширить список фильтров
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Фильтры списка задач, незаданные поля не добавляют условий в запрос
+ * @param status - точный статус
+ * @param statuses - любой из статусов (IN)
+ * @param dueFrom - срок не раньше даты (включительно)
+ * @param dueTo - срок не позже даты (включительно)
+ * @param overdue - только просроченные незавершённые задачи
+ * @param titlePrefix - название начинается с префикса
+ * @param includeArchived - искать и среди архивных задач, по умолчанию только в tasks_hot
+ */
 @Builder
 public record TaskFilterDto(
-        TaskStatus status
+        TaskStatus status,
+        Set<TaskStatus> statuses,
+        LocalDate dueFrom,
+        LocalDate dueTo,
+        Boolean overdue,
+        String titlePrefix,
+        Boolean includeArchived
 ) {
 }
@@ -0,0 +1,15 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import java.util.UUID;
+
+/**
+ * Результат поиска задач
+ * @param id - id задачи
+ * @param rank - релевантность, результаты упорядочены по ней по убыванию
+ * @param task - задача
+ */
+public record TaskSearchHitDto(
+        UUID id,
+        float rank,
+        TaskDto task) {
+}
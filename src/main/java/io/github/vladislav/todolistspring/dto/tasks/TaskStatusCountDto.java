@@ -0,0 +1,8 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+
+public record TaskStatusCountDto(
+        TaskStatus status,
+        long count) {
+}
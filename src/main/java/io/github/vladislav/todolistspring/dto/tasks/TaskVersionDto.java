@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.dto.tasks;
+
+import java.time.Instant;
+
+/**
+ * Задача вместе с версией и временем изменения для ETag и Last-Modified
+ */
+public record TaskVersionDto(
+        TaskDto task,
+        long version,
+        Instant updatedAt) {
+}
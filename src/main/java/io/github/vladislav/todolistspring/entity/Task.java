@@ -1,21 +1,23 @@
 package io.github.vladislav.todolistspring.entity;
 
+import io.github.vladislav.todolistspring.entity.id.GeneratedUuid;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.Table;
+import jakarta.persistence.Version;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.hibernate.proxy.HibernateProxy;
 
+import java.time.Instant;
 import java.time.LocalDate;
 import java.util.Objects;
 import java.util.UUID;
@@ -32,8 +34,14 @@ import java.util.UUID;
 @AllArgsConstructor
 public class Task {
 
+    /**
+     * Новым задачам id назначает TaskMapper.toEntity, до persist, поэтому equals/hashCode
+     * не меняются при сохранении. Генератор выдаёт id только задачам, созданным без него.
+     * Первичный ключ в БД - (id, archived), уникальность одного id между секциями держится
+     * на генерации id сервером и триггере из V9
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
+    @GeneratedUuid
     private UUID id;
 
     @Column(nullable = false)
@@ -47,6 +55,23 @@ public class Task {
     @Enumerated(EnumType.STRING)
     private TaskStatus status;
 
+    /**
+     * Увеличивается при каждом изменении, служит ETag задачи
+     */
+    @Version
+    private Long version;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    /**
+     * Секция таблицы: false - tasks_hot, true - tasks_archive. Новые задачи попадают в tasks_hot
+     * по значению по умолчанию, в архив переносит TaskArchiveService, смена статуса возвращает обратно
+     */
+    @Column(nullable = false, insertable = false, updatable = false)
+    private boolean archived;
+
     @Override
     public final boolean equals(Object o) {
         if (this == o) return true;
@@ -54,13 +79,24 @@ public class Task {
         Class<?> oEffectiveClass = o instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : o.getClass();
         Class<?> thisEffectiveClass = this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass() : this.getClass();
         if (thisEffectiveClass != oEffectiveClass) return false;
-        Task task = (Task) o;
-        return getId() != null && Objects.equals(getId(), task.getId());
+        Object id = idOf(this);
+        return id != null && id.equals(idOf(o));
     }
 
+    /**
+     * Задача без id равна только самой себе, и её hashCode изменится, когда Hibernate выдаст id,
+     * поэтому в хэш-коллекции до сохранения кладутся только задачи с id
+     */
     @Override
     public final int hashCode() {
-        return this instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getPersistentClass().hashCode() : getClass().hashCode();
+        return Objects.hashCode(idOf(this));
+    }
+
+    /**
+     * У прокси id берётся из LazyInitializer, чтобы не инициализировать его
+     */
+    private static Object idOf(Object task) {
+        return task instanceof HibernateProxy proxy ? proxy.getHibernateLazyInitializer().getIdentifier() : ((Task) task).getId();
     }
 
     @Override
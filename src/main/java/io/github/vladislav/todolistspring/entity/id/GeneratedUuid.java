@@ -0,0 +1,18 @@
+package io.github.vladislav.todolistspring.entity.id;
+
+import org.hibernate.annotations.IdGeneratorType;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Генерация UUID-идентификатора стратегией из настройки {@value UuidIdGenerator#STRATEGY_SETTING}
+ * (spring.jpa.properties.todo.id.strategy), по умолчанию {@link IdStrategy#UUID_V7}
+ */
+@IdGeneratorType(UuidIdGenerator.class)
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ElementType.FIELD, ElementType.METHOD})
+public @interface GeneratedUuid {
+}
@@ -0,0 +1,37 @@
+package io.github.vladislav.todolistspring.entity.id;
+
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Стратегии генерации UUID для первичных ключей.
+ * Колонка id хранит любые UUID, поэтому смена стратегии не затрагивает уже выданные id
+ */
+public enum IdStrategy {
+    /**
+     * Упорядоченные по времени UUIDv7 - вставки локализованы в конце индекса
+     */
+    UUID_V7(UuidV7::next),
+    /**
+     * Случайные UUIDv4 - прежнее поведение
+     */
+    RANDOM(UUID::randomUUID);
+
+    private final Supplier<UUID> supplier;
+
+    IdStrategy(Supplier<UUID> supplier) {
+        this.supplier = supplier;
+    }
+
+    public UUID generate() {
+        return supplier.get();
+    }
+
+    /**
+     * @param name - имя стратегии из настройки, регистр не важен
+     * @return - стратегия
+     */
+    public static IdStrategy of(String name) {
+        return valueOf(name.toUpperCase());
+    }
+}
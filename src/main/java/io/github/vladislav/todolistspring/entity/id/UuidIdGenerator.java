@@ -0,0 +1,45 @@
+package io.github.vladislav.todolistspring.entity.id;
+
+import org.hibernate.engine.config.spi.ConfigurationService;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.generator.BeforeExecutionGenerator;
+import org.hibernate.generator.EventType;
+import org.hibernate.generator.EventTypeSets;
+import org.hibernate.generator.GeneratorCreationContext;
+
+import java.lang.reflect.Member;
+import java.util.EnumSet;
+
+/**
+ * Hibernate-генератор для {@link GeneratedUuid}. Id создаётся в памяти до INSERT,
+ * поэтому не мешает JDBC-батчингу вставок. Id, назначенный приложением до persist, сохраняется
+ *
+ * @author Степанов Владислав
+ */
+public class UuidIdGenerator implements BeforeExecutionGenerator {
+
+    public static final String STRATEGY_SETTING = "todo.id.strategy";
+
+    private final IdStrategy strategy;
+
+    public UuidIdGenerator(GeneratedUuid config, Member member, GeneratorCreationContext context) {
+        this.strategy = context.getServiceRegistry()
+                .requireService(ConfigurationService.class)
+                .getSetting(STRATEGY_SETTING, value -> IdStrategy.of(value.toString()), IdStrategy.UUID_V7);
+    }
+
+    @Override
+    public Object generate(SharedSessionContractImplementor session, Object owner, Object currentValue, EventType eventType) {
+        return currentValue != null ? currentValue : strategy.generate();
+    }
+
+    @Override
+    public boolean allowAssignedIdentifiers() {
+        return true;
+    }
+
+    @Override
+    public EnumSet<EventType> getEventTypes() {
+        return EventTypeSets.INSERT_ONLY;
+    }
+}
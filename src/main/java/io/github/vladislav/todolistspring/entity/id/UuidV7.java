@@ -0,0 +1,56 @@
+package io.github.vladislav.todolistspring.entity.id;
+
+import lombok.experimental.UtilityClass;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Генератор UUID версии 7 (RFC 9562): 48 бит unix-времени в миллисекундах,
+ * затем 12-битный счётчик (rand_a) и 62 случайных бита.
+ * Значения монотонно возрастают в пределах JVM, в том числе при вызовах из разных потоков
+ * и при нескольких id в одну миллисекунду, поэтому вставки идут в правый край B-tree индекса
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class UuidV7 {
+
+    private static final int COUNTER_BITS = 12;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    /**
+     * Последнее выданное значение: timestamp << 12 | счётчик
+     */
+    private static final AtomicLong LAST = new AtomicLong();
+
+    public UUID next() {
+        return next(System.currentTimeMillis());
+    }
+
+    /**
+     * При переполнении счётчика в пределах миллисекунды значение
+     * переносится в следующую миллисекунду, сохраняя монотонность
+     * @param nowMillis - текущее время в миллисекундах
+     * @return - новый UUIDv7
+     */
+    public UUID next(long nowMillis) {
+        long candidate = nowMillis << COUNTER_BITS;
+        long value = LAST.updateAndGet(last -> Math.max(candidate, last + 1));
+
+        long timestamp = value >>> COUNTER_BITS;
+        long counter = value & ((1L << COUNTER_BITS) - 1);
+        long msb = (timestamp << 16) | 0x7000L | counter;
+        long lsb = (RANDOM.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+        return new UUID(msb, lsb);
+    }
+
+    /**
+     * @param uuid - UUID версии 7
+     * @return - время создания в миллисекундах
+     */
+    public long timestamp(UUID uuid) {
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+}
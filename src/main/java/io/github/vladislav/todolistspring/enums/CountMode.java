@@ -0,0 +1,23 @@
+package io.github.vladislav.todolistspring.enums;
+
+/**
+ * Способ подсчёта totalElements для страниц списка задач
+ */
+public enum CountMode {
+    /**
+     * COUNT(*) на каждый запрос
+     */
+    EXACT,
+    /**
+     * COUNT(*), закэшированный по набору фильтров на todo.count.cache-ttl и сбрасываемый при записи
+     */
+    CACHED,
+    /**
+     * Оценка планировщика Postgres по статистике таблицы
+     */
+    ESTIMATED,
+    /**
+     * Без total, только признак следующей страницы
+     */
+    NONE
+}
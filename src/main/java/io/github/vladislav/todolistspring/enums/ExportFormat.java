@@ -0,0 +1,16 @@
+package io.github.vladislav.todolistspring.enums;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Форматы выгрузки задач
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ExportFormat {
+    NDJSON("application/x-ndjson"),
+    CSV("text/csv");
+
+    private final String contentType;
+}
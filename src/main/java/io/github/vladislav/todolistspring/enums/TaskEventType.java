@@ -0,0 +1,15 @@
+package io.github.vladislav.todolistspring.enums;
+
+/**
+ * Тип события в потоке GET /v1/tasks/events
+ */
+public enum TaskEventType {
+    CREATED,
+    UPDATED,
+    STATUS_CHANGED,
+    /**
+     * Массовая смена статуса: задачи не перечисляются, их можно забрать через /v1/tasks/changes
+     */
+    BULK_STATUS_CHANGED,
+    DELETED
+}
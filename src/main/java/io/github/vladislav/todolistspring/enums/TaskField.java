@@ -0,0 +1,44 @@
+package io.github.vladislav.todolistspring.enums;
+
+import io.github.vladislav.todolistspring.exception.InvalidFieldsException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumSet;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Поля задачи, которые можно запросить в списке через ?fields=
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TaskField {
+    TITLE("title"),
+    DESCRIPTION("description"),
+    DUE_DATE("dueDate"),
+    STATUS("status");
+
+    private final String property;
+
+    /**
+     * @param properties - имена полей, как в JSON задачи
+     * @return - поля в порядке объявления
+     */
+    public static Set<TaskField> parse(Collection<String> properties) {
+        Set<TaskField> fields = EnumSet.noneOf(TaskField.class);
+        for (String property : properties) {
+            fields.add(Arrays.stream(values())
+                    .filter(field -> field.property.equals(property.trim()))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidFieldsException(String.format(
+                            "Неизвестное поле '%s'. Допустимые поля: %s",
+                            property,
+                            Arrays.stream(values()).map(TaskField::getProperty).collect(Collectors.joining(", "))
+                    ))));
+        }
+        return fields;
+    }
+}
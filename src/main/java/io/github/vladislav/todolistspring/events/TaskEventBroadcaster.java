@@ -0,0 +1,184 @@
+package io.github.vladislav.todolistspring.events;
+
+import io.github.vladislav.todolistspring.config.TaskEventProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBulkStatusDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskEventDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskEventType;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.TooManySubscribersException;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import tools.jackson.databind.ObjectMapper;
+
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Рассылка событий о задачах подписчикам SSE внутри одного экземпляра приложения.
+ * Подключения асинхронные и не держат поток сервлета, событие сериализуется один раз,
+ * а в сокеты пишут виртуальные потоки, поэтому медленный клиент не задерживает ни
+ * транзакцию, ни других подписчиков. Событие отправляется только после коммита
+ *
+ * @author Степанов Владислав
+ */
+@Component
+public class TaskEventBroadcaster {
+    private static final TaskEventSubscriber.Frame HEARTBEAT = new TaskEventSubscriber.Frame(null, "ping", null);
+
+    private final Set<TaskEventSubscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ObjectMapper objectMapper;
+    private final TaskMapper taskMapper;
+    private final TaskEventProperties properties;
+    private final Counter dropped;
+
+    public TaskEventBroadcaster(ObjectMapper objectMapper,
+                                TaskMapper taskMapper,
+                                TaskEventProperties properties,
+                                MeterRegistry registry) {
+        this.objectMapper = objectMapper;
+        this.taskMapper = taskMapper;
+        this.properties = properties;
+        this.dropped = Counter.builder("todo.events.dropped")
+                .description("Подписчики, отключённые из-за переполнения очереди")
+                .register(registry);
+        Gauge.builder("todo.events.subscribers", subscribers, Set::size)
+                .description("Подключённые подписчики потока событий")
+                .register(registry);
+    }
+
+    /**
+     * @param statuses - интересующие статусы, пустой набор или null - все
+     * @return - подключение, которое Spring MVC держит асинхронно
+     */
+    public SseEmitter subscribe(Set<TaskStatus> statuses) {
+        if (subscribers.size() >= properties.maxSubscribers()) {
+            throw new TooManySubscribersException("Слишком много подписчиков, повторите подключение позже");
+        }
+        SseEmitter emitter = new SseEmitter(properties.timeout().toMillis());
+        TaskEventSubscriber subscriber = new TaskEventSubscriber(emitter, statuses, properties.bufferSize(), sender);
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(() -> subscribers.remove(subscriber));
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        return emitter;
+    }
+
+    public void created(Task task) {
+        afterCommit(() -> publish(taskEvent(TaskEventType.CREATED, task), statusOf(task)));
+    }
+
+    public void updated(Task task) {
+        afterCommit(() -> publish(taskEvent(TaskEventType.UPDATED, task), statusOf(task)));
+    }
+
+    /**
+     * Прежний статус неизвестен, поэтому событие получают все подписчики:
+     * иначе подписчик на прежний статус не узнал бы, что задача из него ушла
+     */
+    public void statusChanged(Task task) {
+        afterCommit(() -> publish(taskEvent(TaskEventType.STATUS_CHANGED, task), null));
+    }
+
+    public void bulkStatusChanged(TaskBulkStatusDto bulk, long updated) {
+        if (updated == 0) {
+            return;
+        }
+        afterCommit(() -> publish(TaskEventDto.builder()
+                        .type(TaskEventType.BULK_STATUS_CHANGED)
+                        .bulk(bulk)
+                        .updated(updated)
+                        .build(),
+                Stream.of(bulk.status(), bulk.newStatus()).filter(s -> s != null).collect(Collectors.toSet())));
+    }
+
+    /**
+     * Статус удалённой задачи неизвестен, событие получают все подписчики
+     */
+    public void deleted(UUID id) {
+        afterCommit(() -> publish(TaskEventDto.builder()
+                .type(TaskEventType.DELETED)
+                .id(id)
+                .build(), null));
+    }
+
+    /**
+     * Комментарий раз в heartbeat: запись в оборванное подключение завершается ошибкой,
+     * и подписчик удаляется, не дожидаясь timeout
+     */
+    @Scheduled(fixedDelayString = "${todo.events.heartbeat:15s}")
+    public void heartbeat() {
+        broadcast(HEARTBEAT);
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(TaskEventSubscriber::close);
+        sender.close();
+    }
+
+    private void publish(TaskEventDto event, Set<TaskStatus> statuses) {
+        if (subscribers.isEmpty()) {
+            return;
+        }
+        broadcast(new TaskEventSubscriber.Frame(event.type().name(), objectMapper.writeValueAsString(event), statuses));
+    }
+
+    private void broadcast(TaskEventSubscriber.Frame frame) {
+        for (TaskEventSubscriber subscriber : subscribers) {
+            if (!subscriber.offer(frame)) {
+                subscribers.remove(subscriber);
+                dropped.increment();
+            } else if (subscriber.isClosed()) {
+                subscribers.remove(subscriber);
+            }
+        }
+    }
+
+    private TaskEventDto taskEvent(TaskEventType type, Task task) {
+        return TaskEventDto.builder()
+                .type(type)
+                .id(task.getId())
+                .version(task.getVersion())
+                .task(taskMapper.toDto(task))
+                .build();
+    }
+
+    private Set<TaskStatus> statusOf(Task task) {
+        return task.getStatus() == null ? null : Set.of(task.getStatus());
+    }
+
+    /**
+     * До коммита изменение не видно другим транзакциям, а при откате его не было вовсе
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package io.github.vladislav.todolistspring.events;
+
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Подписчик потока событий со своей ограниченной очередью. Публикация только кладёт событие
+ * в очередь и никогда не ждёт сокет; отправку выполняет задача на общем исполнителе,
+ * и для подписчика одновременно работает не больше одной такой задачи.
+ * Если очередь переполнена, клиент не успевает читать и отключается: пропуск событий
+ * молча привёл бы к расхождению, а после переподключения он догоняет через /v1/tasks/changes
+ *
+ * @author Степанов Владислав
+ */
+public class TaskEventSubscriber {
+    private final SseEmitter emitter;
+    private final Set<TaskStatus> statuses;
+    private final BlockingQueue<Frame> queue;
+    private final Executor sender;
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean closed = new AtomicBoolean();
+
+    /**
+     * @param emitter - подключение клиента
+     * @param statuses - интересующие статусы, пустой набор - все
+     * @param bufferSize - размер очереди
+     * @param sender - исполнитель, на котором пишется в сокет
+     */
+    public TaskEventSubscriber(SseEmitter emitter, Set<TaskStatus> statuses, int bufferSize, Executor sender) {
+        this.emitter = emitter;
+        this.statuses = statuses == null ? Set.of() : Set.copyOf(statuses);
+        this.queue = new ArrayBlockingQueue<>(bufferSize);
+        this.sender = sender;
+    }
+
+    /**
+     * Ставит событие в очередь, если оно подходит под фильтр подписчика
+     * @return - false, если очередь переполнена и подписчик отключён
+     */
+    public boolean offer(Frame frame) {
+        if (closed.get()) {
+            return true;
+        }
+        if (!accepts(frame)) {
+            return true;
+        }
+        if (!queue.offer(frame)) {
+            close();
+            return false;
+        }
+        if (draining.compareAndSet(false, true)) {
+            sender.execute(this::drain);
+        }
+        return true;
+    }
+
+    public boolean isClosed() {
+        return closed.get();
+    }
+
+    public void close() {
+        if (closed.compareAndSet(false, true)) {
+            queue.clear();
+            emitter.complete();
+        }
+    }
+
+    private boolean accepts(Frame frame) {
+        return frame.statuses() == null || statuses.isEmpty()
+                || frame.statuses().stream().anyMatch(statuses::contains);
+    }
+
+    private void drain() {
+        do {
+            Frame frame;
+            while (!closed.get() && (frame = queue.poll()) != null) {
+                try {
+                    emitter.send(frame.name() == null
+                            ? SseEmitter.event().comment(frame.data())
+                            : SseEmitter.event().name(frame.name()).data(frame.data(), MediaType.APPLICATION_JSON));
+                } catch (IOException | IllegalStateException e) {
+                    // Клиент отключился: контейнер сам завершит запрос и вызовет onError/onCompletion
+                    closed.set(true);
+                    queue.clear();
+                }
+            }
+            draining.set(false);
+            // Событие могло прийти между последним poll и сбросом флага
+        } while (!closed.get() && !queue.isEmpty() && draining.compareAndSet(false, true));
+    }
+
+    /**
+     * Событие, сериализованное один раз для всех подписчиков
+     * @param name - имя события SSE, null - комментарий (пинг)
+     * @param data - JSON события или текст комментария
+     * @param statuses - статусы, к которым относится событие, null - событие для всех подписчиков
+     */
+    public record Frame(String name, String data, Set<TaskStatus> statuses) {
+    }
+}
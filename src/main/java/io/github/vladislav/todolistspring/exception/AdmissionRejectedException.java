@@ -0,0 +1,13 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если запрос не допущен: эндпоинт достиг лимита одновременных запросов.
+ * Создаётся один раз и без стека: выброс не должен стоить дороже самого отказа
+ *
+ * @author Степанов Владислав
+ */
+public class AdmissionRejectedException extends RuntimeException {
+    public AdmissionRejectedException(String message) {
+        super(message, null, false, false);
+    }
+}
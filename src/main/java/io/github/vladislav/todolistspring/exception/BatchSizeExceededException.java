@@ -0,0 +1,10 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * @author Степанов Владислав
+ */
+public class BatchSizeExceededException extends RuntimeException {
+    public BatchSizeExceededException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если токен ленты старше хранения надгробий:
+ * часть удалений уже потеряна, клиенту нужна полная синхронизация
+ *
+ * @author Степанов Владислав
+ */
+public class ChangeTokenExpiredException extends RuntimeException {
+    public ChangeTokenExpiredException(String message) {
+        super(message);
+    }
+}
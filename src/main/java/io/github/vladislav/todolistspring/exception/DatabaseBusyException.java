@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если обращение к БД не дождалось свободного места в ограничителе
+ *
+ * @author Степанов Владислав
+ */
+public class DatabaseBusyException extends RuntimeException {
+    public DatabaseBusyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,13 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если крайний срок запроса истёк до обращения к БД.
+ * Создаётся один раз и без стека: выброс не должен стоить дороже самого отказа
+ *
+ * @author Степанов Владислав
+ */
+public class DeadlineExceededException extends RuntimeException {
+    public DeadlineExceededException(String message) {
+        super(message, null, false, false);
+    }
+}
@@ -4,6 +4,9 @@ import io.github.vladislav.todolistspring.dto.ErrorDto;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageNotReadableException;
@@ -24,6 +27,22 @@ import java.util.stream.Collectors;
 @RestControllerAdvice
 public class GlobalExceptionHandler {
 
+    /**
+     * Ответы на отказы собраны заранее: при перегрузке они не должны создавать лишнюю работу
+     */
+    private static final ResponseEntity<ErrorDto> ADMISSION_REJECTED = ResponseEntity
+            .status(HttpStatus.SERVICE_UNAVAILABLE)
+            .header(HttpHeaders.RETRY_AFTER, "1")
+            .body(ErrorDto.builder()
+                    .message("Сервис перегружен, повторите запрос позже")
+                    .build());
+
+    private static final ResponseEntity<ErrorDto> DEADLINE_EXCEEDED = ResponseEntity
+            .status(HttpStatus.GATEWAY_TIMEOUT)
+            .body(ErrorDto.builder()
+                    .message("Время ожидания запроса истекло")
+                    .build());
+
     @ExceptionHandler(EntityNotFoundException.class)
     public ResponseEntity<ErrorDto> handleNotFound(EntityNotFoundException e) {
         log.warn("Ресурс не найден: {}", e.getMessage());
@@ -35,6 +54,127 @@ public class GlobalExceptionHandler {
                         .build());
     }
 
+    @ExceptionHandler(InvalidCursorException.class)
+    public ResponseEntity<ErrorDto> handleInvalidCursor(InvalidCursorException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(ChangeTokenExpiredException.class)
+    public ResponseEntity<ErrorDto> handleChangeTokenExpired(ChangeTokenExpiredException e) {
+        return ResponseEntity
+                .status(HttpStatus.GONE)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(InvalidFieldsException.class)
+    public ResponseEntity<ErrorDto> handleInvalidFields(InvalidFieldsException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(BatchSizeExceededException.class)
+    public ResponseEntity<ErrorDto> handleBatchSizeExceeded(BatchSizeExceededException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(InvalidIdempotencyKeyException.class)
+    public ResponseEntity<ErrorDto> handleInvalidIdempotencyKey(InvalidIdempotencyKeyException e) {
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(IdempotencyKeyReusedException.class)
+    public ResponseEntity<ErrorDto> handleIdempotencyKeyReused(IdempotencyKeyReusedException e) {
+        return ResponseEntity
+                .status(HttpStatus.UNPROCESSABLE_CONTENT)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(DatabaseBusyException.class)
+    public ResponseEntity<ErrorDto> handleDatabaseBusy(DatabaseBusyException e) {
+        log.warn("Запрос отклонён ограничителем БД: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "1")
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(AdmissionRejectedException.class)
+    public ResponseEntity<ErrorDto> handleAdmissionRejected() {
+        return ADMISSION_REJECTED;
+    }
+
+    /**
+     * Крайний срок истёк до обращения к БД или PostgreSQL отменил запрос по таймауту
+     */
+    @ExceptionHandler({DeadlineExceededException.class, QueryTimeoutException.class})
+    public ResponseEntity<ErrorDto> handleDeadlineExceeded() {
+        return DEADLINE_EXCEEDED;
+    }
+
+    @ExceptionHandler(TooManySubscribersException.class)
+    public ResponseEntity<ErrorDto> handleTooManySubscribers(TooManySubscribersException e) {
+        log.warn("Подписка отклонена: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.SERVICE_UNAVAILABLE)
+                .header(HttpHeaders.RETRY_AFTER, "5")
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<ErrorDto> handlePreconditionFailed(PreconditionFailedException e) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(ErrorDto.builder()
+                        .message(e.getMessage())
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
+    /**
+     * Задачу изменили между чтением и flush: версия в UPDATE ... WHERE version = ? не совпала
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<ErrorDto> handleOptimisticLock(OptimisticLockingFailureException e) {
+        log.warn("Конфликт версий: {}", e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(ErrorDto.builder()
+                        .message("Задача была изменена параллельно, повторите запрос")
+                        .timestamp(LocalDateTime.now())
+                        .build());
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<ErrorDto> handleValidationExceptions(MethodArgumentNotValidException ex) {
         String errorMessage = ex.getBindingResult()
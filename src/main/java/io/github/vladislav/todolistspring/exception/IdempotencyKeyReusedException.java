@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если ключ идемпотентности повторно использован с другим телом запроса
+ *
+ * @author Степанов Владислав
+ */
+public class IdempotencyKeyReusedException extends RuntimeException {
+    public IdempotencyKeyReusedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * @author Степанов Владислав
+ */
+public class InvalidCursorException extends RuntimeException {
+    public InvalidCursorException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,10 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * @author Степанов Владислав
+ */
+public class InvalidFieldsException extends RuntimeException {
+    public InvalidFieldsException(String message) {
+        super(message);
+    }
+}
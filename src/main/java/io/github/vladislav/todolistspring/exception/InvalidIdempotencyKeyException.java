@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если заголовок Idempotency-Key пустой или слишком длинный
+ *
+ * @author Степанов Владислав
+ */
+public class InvalidIdempotencyKeyException extends RuntimeException {
+    public InvalidIdempotencyKeyException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если версия из If-Match не совпадает с текущей версией задачи
+ *
+ * @author Степанов Владислав
+ */
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.exception;
+
+/**
+ * Выбрасывается, если достигнут todo.events.max-subscribers
+ *
+ * @author Степанов Владислав
+ */
+public class TooManySubscribersException extends RuntimeException {
+    public TooManySubscribersException(String message) {
+        super(message);
+    }
+}
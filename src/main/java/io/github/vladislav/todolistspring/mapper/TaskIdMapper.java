@@ -0,0 +1,31 @@
+package io.github.vladislav.todolistspring.mapper;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.id.IdStrategy;
+import io.github.vladislav.todolistspring.entity.id.UuidIdGenerator;
+import org.mapstruct.Named;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * Назначает id новой задаче в {@link TaskMapper#toEntity}: id известен до persist,
+ * поэтому equals/hashCode задачи не меняются при сохранении.
+ * Стратегия та же, что у Hibernate-генератора, - spring.jpa.properties.todo.id.strategy
+ *
+ * @author Степанов Владислав
+ */
+@Component
+public class TaskIdMapper {
+    private final IdStrategy strategy;
+
+    public TaskIdMapper(@Value("${spring.jpa.properties." + UuidIdGenerator.STRATEGY_SETTING + ":uuid_v7}") String strategy) {
+        this.strategy = IdStrategy.of(strategy);
+    }
+
+    @Named("newId")
+    public UUID newId(TaskDto taskDto) {
+        return strategy.generate();
+    }
+}
@@ -1,9 +1,12 @@
 package io.github.vladislav.todolistspring.mapper;
 
 import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskExportDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskVersionDto;
 import io.github.vladislav.todolistspring.entity.Task;
 import org.mapstruct.BeanMapping;
+import org.mapstruct.InjectionStrategy;
 import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
@@ -12,17 +15,29 @@ import org.mapstruct.NullValuePropertyMappingStrategy;
 /**
  * @author Степанов Владислав
  */
-@Mapper(componentModel = "spring")
+@Mapper(componentModel = "spring", uses = TaskIdMapper.class, injectionStrategy = InjectionStrategy.CONSTRUCTOR)
 public interface TaskMapper {
 
     TaskDto toDto(Task task);
 
-    @Mapping(target = "id", ignore = true)
+    TaskExportDto toExportDto(Task task);
+
+    @Mapping(target = "id", source = ".", qualifiedByName = "newId")
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "archived", ignore = true)
     Task toEntity(TaskDto taskDto);
 
     @BeanMapping(nullValuePropertyMappingStrategy = NullValuePropertyMappingStrategy.IGNORE)
     @Mapping(target = "id", ignore = true)
     @Mapping(target = "status", ignore = true)
+    @Mapping(target = "version", ignore = true)
+    @Mapping(target = "updatedAt", ignore = true)
+    @Mapping(target = "archived", ignore = true)
     void updateTaskFromDto(TaskPatchDto dto, @MappingTarget Task entity);
 
+    default TaskVersionDto toVersionDto(Task task) {
+        return new TaskVersionDto(toDto(task), task.getVersion(), task.getUpdatedAt());
+    }
+
 }
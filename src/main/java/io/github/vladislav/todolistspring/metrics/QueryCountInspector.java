@@ -0,0 +1,49 @@
+package io.github.vladislav.todolistspring.metrics;
+
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Считает SQL-запросы, подготовленные в текущем потоке, и пишет в лог их случайную выборку.
+ * Заменяет spring.jpa.show-sql, который синхронно печатал каждый запрос в stdout
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j(topic = "io.github.vladislav.todolistspring.sql")
+public class QueryCountInspector implements StatementInspector {
+    private static final ThreadLocal<int[]> COUNT = ThreadLocal.withInitial(() -> new int[1]);
+
+    private final double sampleRate;
+
+    /**
+     * @param sampleRate - доля запросов, попадающих в лог: 0 - ни одного, 1 - все
+     */
+    public QueryCountInspector(double sampleRate) {
+        this.sampleRate = sampleRate;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        COUNT.get()[0]++;
+        if (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate) {
+            log.info("{}", sql);
+        }
+        return sql;
+    }
+
+    /**
+     * Обнуляет счётчик текущего потока
+     */
+    public static void reset() {
+        COUNT.get()[0] = 0;
+    }
+
+    /**
+     * @return - количество запросов в текущем потоке после последнего {@link #reset()}
+     */
+    public static int count() {
+        return COUNT.get()[0];
+    }
+}
@@ -0,0 +1,40 @@
+package io.github.vladislav.todolistspring.metrics;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Записывает количество SQL-запросов на каждый HTTP-запрос в метрику todo.db.queries
+ * с тегами method и uri (шаблон пути, как в http.server.requests)
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+public class QueryCountInterceptor implements HandlerInterceptor {
+    private final MeterRegistry registry;
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        QueryCountInspector.reset();
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request,
+                                HttpServletResponse response,
+                                Object handler,
+                                Exception ex) {
+        Object uri = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        DistributionSummary.builder("todo.db.queries")
+                .description("SQL-запросы на один HTTP-запрос")
+                .tag("method", request.getMethod())
+                .tag("uri", uri == null ? "UNKNOWN" : uri.toString())
+                .register(registry)
+                .record(QueryCountInspector.count());
+    }
+}
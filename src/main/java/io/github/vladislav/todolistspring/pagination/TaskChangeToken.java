@@ -0,0 +1,11 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import java.time.Instant;
+
+/**
+ * Позиция клиента в ленте изменений
+ * @param seq - номер последнего полученного изменения
+ * @param issuedAt - когда токен выдан: по нему отсекаются токены старше хранения надгробий
+ */
+public record TaskChangeToken(long seq, Instant issuedAt) {
+}
@@ -0,0 +1,40 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+import java.time.Instant;
+import java.util.Base64;
+
+/**
+ * Кодирует позицию в ленте изменений в непрозрачный для клиента токен и обратно
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class TaskChangeTokenCodec {
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Long.BYTES + Long.BYTES;
+
+    public String encode(TaskChangeToken token) {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH)
+                .put(VERSION)
+                .putLong(token.seq())
+                .putLong(token.issuedAt().toEpochMilli());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    public TaskChangeToken decode(String token) {
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (bytes.remaining() != LENGTH || bytes.get() != VERSION) {
+                throw new InvalidCursorException("Некорректный токен изменений");
+            }
+            return new TaskChangeToken(bytes.getLong(), Instant.ofEpochMilli(bytes.getLong()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный токен изменений");
+        }
+    }
+}
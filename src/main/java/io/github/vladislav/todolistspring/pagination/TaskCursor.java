@@ -0,0 +1,20 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+/**
+ * Позиция курсора: поле сортировки, направление и ключи последней выданной задачи
+ */
+public record TaskCursor(
+        TaskCursorCodec.SortKey sortKey,
+        Sort.Direction direction,
+        ScrollPosition position
+) {
+    /**
+     * Сортировка всегда дополняется id, чтобы порядок был строго детерминированным
+     */
+    public Sort sort() {
+        return Sort.by(direction, sortKey.getProperty()).and(Sort.by(direction, "id"));
+    }
+}
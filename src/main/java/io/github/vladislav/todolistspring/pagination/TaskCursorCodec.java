@@ -0,0 +1,116 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.experimental.UtilityClass;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Кодирует позицию keyset-пагинации в непрозрачный для клиента токен и обратно
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class TaskCursorCodec {
+
+    private static final byte VERSION = 1;
+
+    /**
+     * Поля, по которым разрешена курсорная сортировка
+     */
+    @Getter
+    @RequiredArgsConstructor
+    public enum SortKey {
+        DUE_DATE("dueDate", task -> task.getDueDate().toString(), LocalDate::parse),
+        TITLE("title", Task::getTitle, value -> value);
+
+        private final String property;
+        private final Function<Task, String> extractor;
+        private final Function<String, Object> parser;
+
+        public static SortKey of(String property) {
+            return Arrays.stream(values())
+                    .filter(key -> key.property.equals(property))
+                    .findFirst()
+                    .orElseThrow(() -> new InvalidCursorException(String.format(
+                            "Сортировка по '%s' не поддерживается. Допустимые значения: %s",
+                            property,
+                            Arrays.stream(values()).map(SortKey::getProperty).collect(Collectors.joining(", "))
+                    )));
+        }
+    }
+
+    /**
+     * Курсор первой страницы
+     * @param sortBy - поле сортировки
+     * @param direction - направление сортировки
+     * @return - курсор, указывающий на начало выборки
+     */
+    public TaskCursor first(String sortBy, Sort.Direction direction) {
+        return new TaskCursor(SortKey.of(sortBy), direction, ScrollPosition.keyset());
+    }
+
+    /**
+     * Кодирует курсор, указывающий на позицию сразу после переданной задачи
+     * @param cursor - курсор текущей страницы
+     * @param last - последняя задача на странице
+     * @return - токен следующей страницы
+     */
+    public String encode(TaskCursor cursor, Task last) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(VERSION);
+            out.writeByte(cursor.sortKey().ordinal());
+            out.writeBoolean(cursor.direction().isAscending());
+            out.writeUTF(cursor.sortKey().getExtractor().apply(last));
+            out.writeLong(last.getId().getMostSignificantBits());
+            out.writeLong(last.getId().getLeastSignificantBits());
+        } catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.toByteArray());
+    }
+
+    /**
+     * Восстанавливает курсор из токена
+     * @param token - токен, полученный в nextCursor
+     * @return - курсор с сортировкой и keyset-позицией
+     */
+    public TaskCursor decode(String token) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(Base64.getUrlDecoder().decode(token)))) {
+            if (in.readByte() != VERSION) {
+                throw new InvalidCursorException("Неподдерживаемая версия курсора");
+            }
+            SortKey sortKey = SortKey.values()[in.readByte()];
+            Sort.Direction direction = in.readBoolean() ? Sort.Direction.ASC : Sort.Direction.DESC;
+            Object value = sortKey.getParser().apply(in.readUTF());
+            UUID id = new UUID(in.readLong(), in.readLong());
+
+            Map<String, Object> keys = new LinkedHashMap<>();
+            keys.put(sortKey.getProperty(), value);
+            keys.put("id", id);
+            return new TaskCursor(sortKey, direction, ScrollPosition.forward(keys));
+        } catch (InvalidCursorException e) {
+            throw e;
+        } catch (RuntimeException | IOException e) {
+            throw new InvalidCursorException("Некорректный курсор");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import java.util.UUID;
+
+/**
+ * Позиция в результатах поиска: релевантность и id последней выданной задачи
+ * @param queryHash - хэш запроса, курсор нельзя применить к другому запросу
+ * @param rank - релевантность последней задачи
+ * @param id - id последней задачи
+ */
+public record TaskSearchCursor(int queryHash, float rank, UUID id) {
+}
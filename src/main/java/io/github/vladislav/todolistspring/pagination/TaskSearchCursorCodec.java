@@ -0,0 +1,54 @@
+package io.github.vladislav.todolistspring.pagination;
+
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import lombok.experimental.UtilityClass;
+
+import java.nio.ByteBuffer;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Кодирует позицию в результатах поиска в непрозрачный для клиента токен и обратно.
+ * Релевантность хранится точным значением float, чтобы сравнение на равенство в keyset-условии
+ * совпадало с real из ts_rank
+ *
+ * @author Степанов Владислав
+ */
+@UtilityClass
+public class TaskSearchCursorCodec {
+
+    private static final byte VERSION = 1;
+    private static final int LENGTH = 1 + Integer.BYTES + Float.BYTES + 2 * Long.BYTES;
+
+    public String encode(TaskSearchCursor cursor) {
+        ByteBuffer bytes = ByteBuffer.allocate(LENGTH)
+                .put(VERSION)
+                .putInt(cursor.queryHash())
+                .putFloat(cursor.rank())
+                .putLong(cursor.id().getMostSignificantBits())
+                .putLong(cursor.id().getLeastSignificantBits());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes.array());
+    }
+
+    /**
+     * @param token - токен из nextCursor
+     * @param query - текущий поисковый запрос
+     * @return - позиция после последней выданной задачи
+     */
+    public TaskSearchCursor decode(String token, String query) {
+        TaskSearchCursor cursor;
+        try {
+            ByteBuffer bytes = ByteBuffer.wrap(Base64.getUrlDecoder().decode(token));
+            if (bytes.remaining() != LENGTH || bytes.get() != VERSION) {
+                throw new InvalidCursorException("Некорректный курсор");
+            }
+            cursor = new TaskSearchCursor(bytes.getInt(), bytes.getFloat(), new UUID(bytes.getLong(), bytes.getLong()));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Некорректный курсор");
+        }
+        if (cursor.queryHash() != query.hashCode()) {
+            throw new InvalidCursorException("Курсор относится к другому поисковому запросу");
+        }
+        return cursor;
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.admission.RequestDeadline;
+import io.github.vladislav.todolistspring.exception.DeadlineExceededException;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.jpa.SpecHints;
+import org.springframework.orm.jpa.EntityManagerFactoryUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Переносит крайний срок запроса ({@link RequestDeadline}) в таймаут SQL-запросов репозитория.
+ * Вызов после срока отклоняется, не занимая соединение. Иначе оставшееся время ставится
+ * таймаутом запросов сессии транзакции: Hibernate передаёт его в Statement.setQueryTimeout,
+ * и PostgreSQL отменяет запрос, клиент которого уже не ждёт ответа.
+ * JDBC считает таймаут в секундах, поэтому остаток округляется вверх, иначе меньше 0.5 с
+ * превратилось бы в 0 - без таймаута. Загрузку по id (EntityManager.find) Hibernate не ограничивает,
+ * поэтому TaskRepository.findById объявлен запросом
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+public class QueryDeadlineInterceptor implements MethodInterceptor {
+    private static final DeadlineExceededException EXCEEDED =
+            new DeadlineExceededException("Время ожидания запроса истекло");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!RequestDeadline.isSet()) {
+            return invocation.proceed();
+        }
+        long remaining = RequestDeadline.remainingNanos();
+        if (remaining <= 0) {
+            throw EXCEEDED;
+        }
+        // Advice стоит внутри транзакционного advice репозитория, поэтому сессия уже привязана
+        EntityManager entityManager = EntityManagerFactoryUtils.getTransactionalEntityManager(entityManagerFactory);
+        if (entityManager != null) {
+            long seconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(remaining + TimeUnit.SECONDS.toNanos(1) - 1));
+            entityManager.setProperty(SpecHints.HINT_SPEC_QUERY_TIMEOUT, (int) TimeUnit.SECONDS.toMillis(seconds));
+        }
+        return invocation.proceed();
+    }
+}
@@ -0,0 +1,36 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangeDto;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Лента изменений задач по номеру изменения (tasks.change_seq и task_tombstones.change_seq)
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskChangeRepository {
+
+    /**
+     * Изменения с номером больше since, включая удаления
+     * @param since - номер последнего полученного клиентом изменения
+     * @param settledBefore - изменения позже этого момента помечаются неустоявшимися, см. TaskChangeService
+     * @param limit - максимальное количество изменений
+     * @return - изменения с номерами, по возрастанию номера
+     */
+    List<Change> findChanges(long since, Instant settledBefore, int limit);
+
+    /**
+     * Удаляет надгробия, удалённые раньше before
+     * @return - количество удалённых надгробий
+     */
+    int purgeTombstones(Instant before);
+
+    /**
+     * Изменение вместе с его номером
+     * @param settled - изменение старше settledBefore
+     */
+    record Change(long seq, TaskChangeDto change, boolean settled) {
+    }
+}
@@ -0,0 +1,84 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangeDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Задачи и надгробия читаются одним UNION ALL: каждая ветвь идёт по своему индексу
+ * на change_seq, и PostgreSQL сливает их через Merge Append, останавливаясь на LIMIT.
+ * Окно settle не фильтрует строки, а только помечает их: фильтр пропустил бы
+ * несвежую строку с меньшим номером и отдал бы следующие за ней
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskChangeRepositoryImpl implements TaskChangeRepository {
+    private static final String CHANGES_SQL = """
+            select * from (
+                select t.change_seq, t.id, false as deleted, t.version,
+                       t.title, t.description, t.due_date, t.status, t.updated_at < :settled as settled
+                from tasks t
+                where t.change_seq > :since
+                union all
+                select d.change_seq, d.id, true, null, null, null, null, null, d.deleted_at < :settled
+                from task_tombstones d
+                where d.change_seq > :since
+            ) c
+            order by c.change_seq
+            limit :limit
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public List<Change> findChanges(long since, Instant settledBefore, int limit) {
+        List<Object[]> rows = entityManager.createNativeQuery(CHANGES_SQL)
+                .unwrap(NativeQuery.class)
+                .addScalar("change_seq", Long.class)
+                .addScalar("id", UUID.class)
+                .addScalar("deleted", Boolean.class)
+                .addScalar("version", Long.class)
+                .addScalar("title", String.class)
+                .addScalar("description", String.class)
+                .addScalar("due_date", LocalDate.class)
+                .addScalar("status", String.class)
+                .addScalar("settled", Boolean.class)
+                .setParameter("since", since)
+                .setParameter("settled", settledBefore)
+                .setParameter("limit", limit)
+                .getResultList();
+        return rows.stream().map(this::toChange).toList();
+    }
+
+    @Override
+    public int purgeTombstones(Instant before) {
+        return entityManager.createNativeQuery("delete from task_tombstones where deleted_at < :before")
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+
+    private Change toChange(Object[] row) {
+        UUID id = (UUID) row[1];
+        boolean settled = (Boolean) row[8];
+        if ((Boolean) row[2]) {
+            return new Change((Long) row[0], new TaskChangeDto(id, true, null, null), settled);
+        }
+        TaskDto task = TaskDto.builder()
+                .title((String) row[4])
+                .description((String) row[5])
+                .dueDate((LocalDate) row[6])
+                .status(row[7] == null ? null : TaskStatus.valueOf((String) row[7]))
+                .build();
+        return new Change((Long) row[0], new TaskChangeDto(id, false, (Long) row[3], task), settled);
+    }
+}
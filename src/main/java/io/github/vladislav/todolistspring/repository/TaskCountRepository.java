@@ -0,0 +1,18 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+
+/**
+ * Приблизительный подсчёт задач без COUNT(*)
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskCountRepository {
+
+    /**
+     * Оценка по EXPLAIN: планировщик считает строки по статистике таблицы (ANALYZE), не читая её
+     * @param filter - фильтры задач
+     * @return - ожидаемое количество задач
+     */
+    long estimateCount(TaskFilterDto filter);
+}
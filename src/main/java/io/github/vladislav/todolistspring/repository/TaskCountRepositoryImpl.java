@@ -0,0 +1,64 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * EXPLAIN не принимает параметры запроса, поэтому значения фильтров подставляются литералами.
+ * Подставляются только типизированные значения (enum, LocalDate), строка префикса экранируется
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskCountRepositoryImpl implements TaskCountRepository {
+    private static final Pattern ROWS = Pattern.compile(" rows=(\\d+)");
+
+    private final EntityManager entityManager;
+
+    @Override
+    public long estimateCount(TaskFilterDto filter) {
+        List<String> conditions = new ArrayList<>();
+        if (filter.status() != null) {
+            conditions.add("status = '" + filter.status().name() + "'");
+        }
+        if (filter.statuses() != null && !filter.statuses().isEmpty()) {
+            conditions.add(filter.statuses().stream()
+                    .map(status -> "'" + status.name() + "'")
+                    .collect(Collectors.joining(", ", "status in (", ")")));
+        }
+        if (filter.dueFrom() != null) {
+            conditions.add("due_date >= date '" + filter.dueFrom() + "'");
+        }
+        if (filter.dueTo() != null) {
+            conditions.add("due_date <= date '" + filter.dueTo() + "'");
+        }
+        if (Boolean.TRUE.equals(filter.overdue())) {
+            conditions.add("status <> '" + TaskStatus.DONE.name() + "' and due_date < current_date");
+        }
+        if (filter.titlePrefix() != null && !filter.titlePrefix().isBlank()) {
+            String prefix = filter.titlePrefix()
+                    .replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_")
+                    .replace("'", "''");
+            conditions.add("title like '" + prefix + "%' escape '\\'");
+        }
+
+        if (!Boolean.TRUE.equals(filter.includeArchived())) {
+            conditions.add("archived = false");
+        }
+
+        String sql = "explain select 1 from tasks"
+                + (conditions.isEmpty() ? "" : " where " + String.join(" and ", conditions));
+        // Первая строка плана - корневой узел, его rows и есть оценка результата
+        String plan = (String) entityManager.createNativeQuery(sql).getResultList().getFirst();
+        Matcher matcher = ROWS.matcher(plan);
+        return matcher.find() ? Long.parseLong(matcher.group(1)) : 0;
+    }
+}
@@ -0,0 +1,44 @@
+package io.github.vladislav.todolistspring.repository;
+
+import java.time.Instant;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Ключи идемпотентности создания задач (task_idempotency_keys)
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskIdempotencyRepository {
+
+    /**
+     * Занимает ключ. Если ключ занят незакоммиченной транзакцией, ждёт её завершения
+     * @param key - ключ из заголовка Idempotency-Key
+     * @param fingerprint - отпечаток тела запроса
+     * @param expiredBefore - ключ, созданный раньше, считается свободным
+     * @return - true, если ключ занят этим вызовом
+     */
+    boolean claimIdempotencyKey(String key, long fingerprint, Instant expiredBefore);
+
+    /**
+     * Сохраняет ответ для занятого ключа
+     */
+    void completeIdempotencyKey(String key, UUID taskId, String response);
+
+    /**
+     * @return - сохранённый ответ по ключу
+     */
+    Optional<StoredResponse> findIdempotencyKey(String key);
+
+    /**
+     * Удаляет ключи, созданные раньше before
+     * @return - количество удалённых ключей
+     */
+    int purgeIdempotencyKeys(Instant before);
+
+    /**
+     * Отпечаток запроса и ответ в JSON
+     */
+    record StoredResponse(long fingerprint, String response) {
+    }
+}
@@ -0,0 +1,69 @@
+package io.github.vladislav.todolistspring.repository;
+
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Устаревший, но ещё не удалённый ключ занимается заново через ON CONFLICT DO UPDATE ... WHERE,
+ * действующий - не меняется, и INSERT не затрагивает ни одной строки
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskIdempotencyRepositoryImpl implements TaskIdempotencyRepository {
+    private static final String CLAIM_SQL = """
+            insert into task_idempotency_keys as k (key, fingerprint)
+            values (:key, :fingerprint)
+            on conflict (key) do update
+                set fingerprint = excluded.fingerprint, task_id = null, response = null, created_at = now()
+                where k.created_at < :expired
+            """;
+
+    private final EntityManager entityManager;
+
+    @Override
+    public boolean claimIdempotencyKey(String key, long fingerprint, Instant expiredBefore) {
+        return entityManager.createNativeQuery(CLAIM_SQL)
+                .setParameter("key", key)
+                .setParameter("fingerprint", fingerprint)
+                .setParameter("expired", expiredBefore)
+                .executeUpdate() > 0;
+    }
+
+    @Override
+    public void completeIdempotencyKey(String key, UUID taskId, String response) {
+        entityManager.createNativeQuery("update task_idempotency_keys set task_id = :taskId, response = :response where key = :key")
+                .setParameter("key", key)
+                .setParameter("taskId", taskId)
+                .setParameter("response", response)
+                .executeUpdate();
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Optional<StoredResponse> findIdempotencyKey(String key) {
+        List<Object[]> rows = entityManager.createNativeQuery(
+                        "select k.fingerprint, k.response from task_idempotency_keys k where k.key = :key")
+                .unwrap(NativeQuery.class)
+                .addScalar("fingerprint", Long.class)
+                .addScalar("response", String.class)
+                .setParameter("key", key)
+                .getResultList();
+        return rows.stream()
+                .findFirst()
+                .map(row -> new StoredResponse((Long) row[0], (String) row[1]));
+    }
+
+    @Override
+    public int purgeIdempotencyKeys(Instant before) {
+        return entityManager.createNativeQuery("delete from task_idempotency_keys where created_at < :before")
+                .setParameter("before", before)
+                .executeUpdate();
+    }
+}
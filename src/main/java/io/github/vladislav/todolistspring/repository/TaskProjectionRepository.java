@@ -0,0 +1,36 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskField;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Чтение списков задач проекциями: выбираются только нужные колонки,
+ * сущности не создаются и не попадают в persistence context.
+ * COUNT(*) не выполняется, total считает TaskCountService в выбранном режиме
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskProjectionRepository {
+
+    /**
+     * @param spec - фильтры задач
+     * @param pageable - страница и сортировка
+     * @return - срез задач, построенных конструктором TaskDto прямо в запросе
+     */
+    Slice<TaskDto> findAllDto(Specification<Task> spec, Pageable pageable);
+
+    /**
+     * @param spec - фильтры задач
+     * @param fields - выбираемые поля, остальные колонки не читаются
+     * @param pageable - страница и сортировка
+     * @return - срез задач в виде "поле -> значение" в порядке {@link TaskField}
+     */
+    Slice<Map<String, Object>> findAllFields(Specification<Task> spec, Set<TaskField> fields, Pageable pageable);
+}
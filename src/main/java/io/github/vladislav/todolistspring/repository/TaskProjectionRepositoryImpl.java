@@ -0,0 +1,88 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskField;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskProjectionRepositoryImpl implements TaskProjectionRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Slice<TaskDto> findAllDto(Specification<Task> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<TaskDto> query = cb.createQuery(TaskDto.class);
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.construct(TaskDto.class,
+                root.get("title"),
+                root.get("description"),
+                root.get("dueDate"),
+                root.get("status")));
+
+        return slice(page(query, root, spec, pageable).getResultList(), pageable);
+    }
+
+    @Override
+    public Slice<Map<String, Object>> findAllFields(Specification<Task> spec, Set<TaskField> fields, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<Task> root = query.from(Task.class);
+        query.select(cb.tuple(fields.stream()
+                .<Selection<?>>map(field -> root.get(field.getProperty()).alias(field.getProperty()))
+                .toList()));
+
+        List<Map<String, Object>> content = page(query, root, spec, pageable).getResultStream()
+                .map(tuple -> {
+                    Map<String, Object> row = new LinkedHashMap<>();
+                    fields.forEach(field -> row.put(field.getProperty(), tuple.get(field.getProperty())));
+                    return row;
+                })
+                .toList();
+        return slice(content, pageable);
+    }
+
+    private <T> TypedQuery<T> page(CriteriaQuery<T> query, Root<Task> root, Specification<Task> spec, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(pageable.getSort(), root, cb));
+
+        TypedQuery<T> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            // Лишняя строка показывает, есть ли следующая страница
+            typedQuery.setFirstResult(Math.toIntExact(pageable.getOffset()));
+            typedQuery.setMaxResults(pageable.getPageSize() + 1);
+        }
+        return typedQuery;
+    }
+
+    private <T> Slice<T> slice(List<T> rows, Pageable pageable) {
+        boolean hasNext = pageable.isPaged() && rows.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? rows.subList(0, pageable.getPageSize()) : rows, pageable, hasNext);
+    }
+}
@@ -1,15 +1,77 @@
 package io.github.vladislav.todolistspring.repository;
 
+import io.github.vladislav.todolistspring.dto.tasks.TaskStatusCountDto;
 import io.github.vladislav.todolistspring.entity.Task;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * @author Степанов Владислав
  */
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
-}
\ No newline at end of file
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task>,
+        TaskStreamRepository, TaskProjectionRepository, TaskCountRepository, TaskChangeRepository,
+        TaskSearchRepository, TaskIdempotencyRepository, TaskStatusChangeRepository {
+
+    @Query("select new io.github.vladislav.todolistspring.dto.tasks.TaskStatusCountDto(t.status, count(t)) "
+            + "from Task t where t.archived = false group by t.status")
+    List<TaskStatusCountDto> countByStatus();
+
+    /**
+     * Загрузка по id запросом, а не EntityManager.find: find не применяет таймаут запросов сессии,
+     * и {@link QueryDeadlineInterceptor} не ограничил бы его крайним сроком запроса.
+     * Уже загруженная в транзакции задача возвращается тем же экземпляром
+     */
+    @Override
+    @Query("select t from Task t where t.id = :id")
+    Optional<Task> findById(@Param("id") UUID id);
+
+    @Query("select t.id from Task t where t.id in :ids")
+    Set<UUID> findExistingIds(@Param("ids") Collection<UUID> ids);
+
+    /**
+     * Меняет статусы многих задач одним UPDATE ... FROM unnest(...). Задачи, у которых статус
+     * уже такой же, не обновляются и версию не меняют
+     * @param ids - id задач
+     * @param statuses - новые статусы в том же порядке (имена констант TaskStatus)
+     * @return - изменённые задачи
+     */
+    @Transactional
+    @Query(value = """
+            update tasks t set status = v.status, version = t.version + 1, updated_at = now(), archived = false
+            from unnest(:ids, :statuses) as v(id, status)
+            where t.id = v.id and t.status is distinct from v.status
+            returning t.*
+            """, nativeQuery = true)
+    List<Task> updateStatuses(@Param("ids") UUID[] ids, @Param("statuses") String[] statuses);
+
+    /**
+     * Переносит порцию завершённых задач, не менявшихся с cutoff, в архивную секцию.
+     * Строки, заблокированные другими транзакциями, пропускаются (SKIP LOCKED)
+     * @param cutoff - задачи с updated_at раньше этого момента
+     * @param limit - размер порции
+     * @return - количество перенесённых задач
+     */
+    @Modifying
+    @Query(value = """
+            update tasks set archived = true
+            where archived = false and id in (
+                select id from tasks
+                where archived = false and status = 'DONE' and updated_at < :cutoff
+                limit :limit
+                for update skip locked)
+            """, nativeQuery = true)
+    int archiveDone(@Param("cutoff") Instant cutoff, @Param("limit") int limit);
+}
@@ -0,0 +1,25 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Полнотекстовый поиск задач с keyset-пагинацией по (релевантность desc, id)
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskSearchRepository {
+
+    /**
+     * @param spec - дополнительные фильтры задач
+     * @param query - поисковый запрос
+     * @param after - позиция после последней выданной задачи, null - первая страница
+     * @param limit - максимальное количество результатов
+     * @return - результаты поиска, проекция без загрузки сущностей
+     */
+    List<TaskSearchHitDto> search(Specification<Task> spec, String query, TaskSearchCursor after, int limit);
+}
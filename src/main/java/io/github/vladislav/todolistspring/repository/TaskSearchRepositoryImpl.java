@@ -0,0 +1,74 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
+import io.github.vladislav.todolistspring.specification.TaskSpecification;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * GIN-индекс отбирает совпавшие строки, ts_rank считается только для них,
+ * и Postgres держит в памяти top-N по (rank desc, id) вместо полной сортировки
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskSearchRepositoryImpl implements TaskSearchRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<TaskSearchHitDto> search(Specification<Task> spec, String query, TaskSearchCursor after, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> criteria = cb.createTupleQuery();
+        Root<Task> root = criteria.from(Task.class);
+        Expression<Float> rank = TaskSpecification.rank(root, cb, query);
+        Path<UUID> id = root.get("id");
+        Path<String> title = root.get("title");
+        Path<String> description = root.get("description");
+        Path<LocalDate> dueDate = root.get("dueDate");
+        Path<TaskStatus> status = root.get("status");
+        criteria.select(cb.tuple(id, rank, title, description, dueDate, status));
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(TaskSpecification.matches(query).toPredicate(root, cb));
+        Predicate filter = spec.toPredicate(root, criteria, cb);
+        if (filter != null) {
+            predicates.add(filter);
+        }
+        if (after != null) {
+            predicates.add(cb.or(
+                    cb.lessThan(rank, after.rank()),
+                    cb.and(cb.equal(rank, after.rank()), cb.greaterThan(id, after.id()))));
+        }
+        criteria.where(predicates.toArray(Predicate[]::new));
+        criteria.orderBy(cb.desc(rank), cb.asc(id));
+
+        return entityManager.createQuery(criteria)
+                .setMaxResults(limit)
+                .getResultStream()
+                .map(row -> new TaskSearchHitDto(row.get(id), row.get(rank), TaskDto.builder()
+                        .title(row.get(title))
+                        .description(row.get(description))
+                        .dueDate(row.get(dueDate))
+                        .status(row.get(status))
+                        .build()))
+                .toList();
+    }
+}
@@ -0,0 +1,50 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Смена статуса и удаление одной задачи одним запросом, который возвращает и прежнее состояние строки:
+ * по нему счётчики статусов поправляются точно, без сброса
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskStatusChangeRepository {
+
+    /**
+     * Меняет статус одним UPDATE ... RETURNING, без предварительной загрузки сущности.
+     * Версия, если задана, проверяется в том же UPDATE. Задача из архива возвращается в горячую секцию
+     * @param id - id задачи
+     * @param status - новый статус
+     * @param expectedVersion - ожидаемая версия, null - без проверки
+     * @return - задача после обновления и её прежнее состояние или пусто, если задачи нет или версия изменилась
+     */
+    @Transactional
+    Optional<StatusChange> changeStatus(UUID id, TaskStatus status, Long expectedVersion);
+
+    /**
+     * Удаляет задачу одним DELETE ... RETURNING, без предварительной загрузки сущности
+     * @param id - id задачи
+     * @return - состояние удалённой задачи или пусто, если задачи нет
+     */
+    Optional<TaskState> deleteReturningState(UUID id);
+
+    /**
+     * @param task - задача после смены статуса
+     * @param previous - состояние до смены
+     */
+    record StatusChange(Task task, TaskState previous) {
+    }
+
+    /**
+     * @param status - статус задачи
+     * @param archived - лежала ли задача в tasks_archive
+     */
+    record TaskState(TaskStatus status, boolean archived) {
+    }
+}
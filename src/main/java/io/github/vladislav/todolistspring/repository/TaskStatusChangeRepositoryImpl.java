@@ -0,0 +1,72 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.query.NativeQuery;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Прежнее состояние читает подзапрос FOR UPDATE в том же UPDATE: он блокирует строку
+ * и после ожидания конкурирующей транзакции видит её закоммиченную версию
+ *
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskStatusChangeRepositoryImpl implements TaskStatusChangeRepository {
+    private static final String CHANGE_SQL = """
+            update tasks t set status = :status, version = t.version + 1, updated_at = now(), archived = false
+            from (select id, status, archived from tasks where id = :id %s for update) old
+            where t.id = old.id and t.archived = old.archived
+            returning t.*, old.status as old_status, old.archived as old_archived
+            """;
+    private static final String CHANGE_ANY_VERSION_SQL = CHANGE_SQL.formatted("");
+    private static final String CHANGE_IF_VERSION_SQL = CHANGE_SQL.formatted("and version = :version");
+    private static final String DELETE_SQL = "delete from tasks where id = :id returning status, archived";
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Optional<StatusChange> changeStatus(UUID id, TaskStatus status, Long expectedVersion) {
+        NativeQuery<?> query = entityManager
+                .createNativeQuery(expectedVersion == null ? CHANGE_ANY_VERSION_SQL : CHANGE_IF_VERSION_SQL)
+                .setParameter("id", id)
+                .setParameter("status", status.name())
+                .unwrap(NativeQuery.class)
+                .addEntity(Task.class)
+                .addScalar("old_status", String.class)
+                .addScalar("old_archived", Boolean.class);
+        if (expectedVersion != null) {
+            query.setParameter("version", expectedVersion);
+        }
+        List<?> rows = query.getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.getFirst();
+        return Optional.of(new StatusChange((Task) row[0], state(row[1], row[2])));
+    }
+
+    @Override
+    public Optional<TaskState> deleteReturningState(UUID id) {
+        List<?> rows = entityManager.createNativeQuery(DELETE_SQL)
+                .setParameter("id", id)
+                .unwrap(NativeQuery.class)
+                .addScalar("status", String.class)
+                .addScalar("archived", Boolean.class)
+                .getResultList();
+        if (rows.isEmpty()) {
+            return Optional.empty();
+        }
+        Object[] row = (Object[]) rows.getFirst();
+        return Optional.of(state(row[0], row[1]));
+    }
+
+    private TaskState state(Object status, Object archived) {
+        return new TaskState(status == null ? null : TaskStatus.valueOf((String) status), Boolean.TRUE.equals(archived));
+    }
+}
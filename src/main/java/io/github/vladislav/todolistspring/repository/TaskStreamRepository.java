@@ -0,0 +1,25 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.stream.Stream;
+
+/**
+ * Потоковое чтение задач через серверный курсор БД
+ *
+ * @author Степанов Владислав
+ */
+public interface TaskStreamRepository {
+
+    /**
+     * Строки подтягиваются из БД порциями по fetchSize, а не загружаются все сразу.
+     * Должен вызываться внутри транзакции, поток нужно закрыть после чтения
+     * @param spec - фильтры задач
+     * @param sort - сортировка
+     * @param fetchSize - количество строк, получаемых за одно обращение к курсору
+     * @return - поток задач в режиме read-only
+     */
+    Stream<Task> stream(Specification<Task> spec, Sort sort, int fetchSize);
+}
@@ -0,0 +1,43 @@
+package io.github.vladislav.todolistspring.repository;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+
+import java.util.stream.Stream;
+
+/**
+ * @author Степанов Владислав
+ */
+@RequiredArgsConstructor
+class TaskStreamRepositoryImpl implements TaskStreamRepository {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public Stream<Task> stream(Specification<Task> spec, Sort sort, int fetchSize) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Task> query = cb.createQuery(Task.class);
+        Root<Task> root = query.from(Task.class);
+
+        Predicate predicate = spec.toPredicate(root, query, cb);
+        if (predicate != null) {
+            query.where(predicate);
+        }
+        query.orderBy(QueryUtils.toOrders(sort, root, cb));
+
+        // read-only: Hibernate не хранит снапшоты для dirty checking
+        return entityManager.createQuery(query)
+                .setHint(HibernateHints.HINT_FETCH_SIZE, fetchSize)
+                .setHint(HibernateHints.HINT_READ_ONLY, true)
+                .getResultStream();
+    }
+}
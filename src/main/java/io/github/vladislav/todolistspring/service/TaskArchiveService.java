@@ -0,0 +1,54 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.TaskArchiveProperties;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+
+/**
+ * Перенос завершённых задач из горячей секции tasks_hot в архивную tasks_archive.
+ * Перенос идёт порциями, каждая в своей транзакции: блокируется немного строк,
+ * а строки, занятые пользовательскими запросами, пропускаются до следующего запуска
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TaskArchiveService {
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskArchiveProperties properties;
+    private final TaskCountService taskCountService;
+
+    /**
+     * @return - количество перенесённых задач
+     */
+    @Scheduled(fixedDelayString = "${todo.archive.interval:1h}", initialDelayString = "${todo.archive.interval:1h}")
+    public long archive() {
+        if (!properties.enabled()) {
+            return 0;
+        }
+        Instant cutoff = Instant.now().minus(properties.after());
+        long archived = 0;
+        for (int i = 0; i < properties.maxBatches(); i++) {
+            Integer moved = transactionTemplate.execute(status ->
+                    taskRepository.archiveDone(cutoff, properties.batchSize()));
+            archived += moved == null ? 0 : moved;
+            if (moved == null || moved < properties.batchSize()) {
+                break;
+            }
+        }
+        if (archived > 0) {
+            // Счётчики по статусам считают только горячую секцию
+            taskCountService.invalidate();
+            log.info("Перенесено в архив задач: {}", archived);
+        }
+        return archived;
+    }
+}
@@ -0,0 +1,239 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.config.TaskBatchProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResultDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.exception.BatchSizeExceededException;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Пакетные операции над задачами. Каждая порция выполняется в отдельной транзакции,
+ * а INSERT/UPDATE внутри неё уходят в БД JDBC-батчами (см. hibernate.jdbc.batch_size).
+ * Если порция падает целиком, её элементы повторяются по одному, чтобы вернуть
+ * ошибку только для проблемных элементов
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Service
+@Timed("todo.service")
+@RequiredArgsConstructor
+public class TaskBatchService {
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+    private final TaskBatchProperties properties;
+    private final CacheManager cacheManager;
+    private final TaskCountService taskCountService;
+
+    public TaskBatchResponseDto createTasks(List<TaskDto> taskDtos) {
+        checkSize(taskDtos);
+        TaskBatchResultDto[] results = new TaskBatchResultDto[taskDtos.size()];
+        List<Integer> valid = validate(taskDtos, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            process(chunk, results, indexes -> {
+                List<Task> saved = taskRepository.saveAll(indexes.stream()
+                        .map(i -> taskMapper.toEntity(taskDtos.get(i)))
+                        .toList());
+                Map<Integer, TaskBatchResultDto> res = new HashMap<>();
+                for (int k = 0; k < indexes.size(); k++) {
+                    res.put(indexes.get(k), success(indexes.get(k), saved.get(k)));
+                }
+                return res;
+            });
+        }
+        Arrays.stream(results)
+                .filter(TaskBatchResultDto::success)
+                .collect(Collectors.groupingBy(r -> taskDtos.get(r.index()).status(), Collectors.counting()))
+                .forEach(taskCountService::created);
+        return toResponse(results);
+    }
+
+    public TaskBatchResponseDto updateTasks(List<TaskBatchPatchDto> patches) {
+        checkSize(patches);
+        TaskBatchResultDto[] results = new TaskBatchResultDto[patches.size()];
+        List<Integer> valid = validate(patches, results);
+
+        for (List<Integer> chunk : chunks(valid)) {
+            process(chunk, results, indexes -> {
+                Map<UUID, Task> found = taskRepository.findAllById(indexes.stream()
+                                .map(i -> patches.get(i).id())
+                                .collect(Collectors.toSet()))
+                        .stream()
+                        .collect(Collectors.toMap(Task::getId, Function.identity()));
+
+                Map<Integer, TaskBatchResultDto> res = new HashMap<>();
+                for (int i : indexes) {
+                    TaskBatchPatchDto patch = patches.get(i);
+                    Task task = found.get(patch.id());
+                    if (task == null) {
+                        res.put(i, notFound(i, patch.id()));
+                        continue;
+                    }
+                    taskMapper.updateTaskFromDto(patch.patch(), task);
+                    res.put(i, success(i, task));
+                }
+                return res;
+            });
+            evict(chunk.stream().map(i -> patches.get(i).id()).toList());
+        }
+        return toResponse(results);
+    }
+
+    public TaskBatchResponseDto deleteTasks(List<UUID> ids) {
+        checkSize(ids);
+        TaskBatchResultDto[] results = new TaskBatchResultDto[ids.size()];
+        List<Integer> valid = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            if (ids.get(i) == null) {
+                results[i] = failure(i, null, "id не может быть пустым");
+            } else {
+                valid.add(i);
+            }
+        }
+
+        for (List<Integer> chunk : chunks(valid)) {
+            process(chunk, results, indexes -> {
+                Set<UUID> existing = taskRepository.findExistingIds(indexes.stream()
+                        .map(ids::get)
+                        .collect(Collectors.toSet()));
+                taskRepository.deleteAllByIdInBatch(existing);
+
+                Map<Integer, TaskBatchResultDto> res = new HashMap<>();
+                for (int i : indexes) {
+                    UUID id = ids.get(i);
+                    res.put(i, existing.contains(id)
+                            ? TaskBatchResultDto.builder().index(i).id(id).success(true).build()
+                            : notFound(i, id));
+                }
+                return res;
+            });
+            evict(chunk.stream().map(ids::get).toList());
+        }
+        taskCountService.invalidate();
+        return toResponse(results);
+    }
+
+    /**
+     * Выполняет порцию в одной транзакции, при ошибке - каждый элемент в своей транзакции
+     */
+    private void process(List<Integer> chunk,
+                         TaskBatchResultDto[] results,
+                         Function<List<Integer>, Map<Integer, TaskBatchResultDto>> action) {
+        try {
+            transactionTemplate.execute(status -> action.apply(chunk)).forEach((i, r) -> results[i] = r);
+        } catch (RuntimeException e) {
+            log.warn("Порция из {} элементов откатилась, повтор по одному: {}", chunk.size(), e.getMessage());
+            for (int i : chunk) {
+                try {
+                    results[i] = transactionTemplate.execute(status -> action.apply(List.of(i))).get(i);
+                } catch (RuntimeException itemEx) {
+                    results[i] = failure(i, null, itemEx.getMessage());
+                }
+            }
+        }
+    }
+
+    /**
+     * Сбрасывает кэш после коммита порции: сброс до коммита позволил бы чтению вернуть в кэш старые данные
+     */
+    private void evict(List<UUID> ids) {
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        if (cache != null) {
+            ids.forEach(cache::evict);
+        }
+    }
+
+    private <T> List<Integer> validate(List<T> items, TaskBatchResultDto[] results) {
+        List<Integer> valid = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            T item = items.get(i);
+            if (item == null) {
+                results[i] = failure(i, null, "Элемент не может быть пустым");
+                continue;
+            }
+            Set<ConstraintViolation<T>> violations = validator.validate(item);
+            if (violations.isEmpty()) {
+                valid.add(i);
+            } else {
+                results[i] = failure(i, null, violations.stream()
+                        .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+                        .sorted()
+                        .collect(Collectors.joining(", ")));
+            }
+        }
+        return valid;
+    }
+
+    private List<List<Integer>> chunks(List<Integer> indexes) {
+        int size = properties.chunkSize();
+        List<List<Integer>> res = new ArrayList<>();
+        for (int from = 0; from < indexes.size(); from += size) {
+            res.add(indexes.subList(from, Math.min(from + size, indexes.size())));
+        }
+        return res;
+    }
+
+    private void checkSize(List<?> items) {
+        if (items.size() > properties.maxItems()) {
+            throw new BatchSizeExceededException(String.format(
+                    "Слишком много элементов в запросе: %d. Максимум: %d",
+                    items.size(),
+                    properties.maxItems()
+            ));
+        }
+    }
+
+    private TaskBatchResultDto success(int index, Task task) {
+        return TaskBatchResultDto.builder()
+                .index(index)
+                .id(task.getId())
+                .success(true)
+                .task(taskMapper.toDto(task))
+                .build();
+    }
+
+    private TaskBatchResultDto notFound(int index, UUID id) {
+        return failure(index, id, "Задача с " + id + " не найдена");
+    }
+
+    private TaskBatchResultDto failure(int index, UUID id, String error) {
+        return TaskBatchResultDto.builder()
+                .index(index)
+                .id(id)
+                .success(false)
+                .error(error)
+                .build();
+    }
+
+    private TaskBatchResponseDto toResponse(TaskBatchResultDto[] results) {
+        int succeeded = (int) Arrays.stream(results).filter(TaskBatchResultDto::success).count();
+        return new TaskBatchResponseDto(results.length, succeeded, results.length - succeeded, List.of(results));
+    }
+}
@@ -0,0 +1,85 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.TaskChangeProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangeDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangesDto;
+import io.github.vladislav.todolistspring.exception.ChangeTokenExpiredException;
+import io.github.vladislav.todolistspring.pagination.TaskChangeToken;
+import io.github.vladislav.todolistspring.pagination.TaskChangeTokenCodec;
+import io.github.vladislav.todolistspring.repository.TaskChangeRepository.Change;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Лента изменений задач: клиент хранит токен и получает только то, что изменилось после него,
+ * вместо повторного чтения всех страниц списка
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Service
+@Timed("todo.service")
+@RequiredArgsConstructor
+public class TaskChangeService {
+    private final TaskRepository taskRepository;
+    private final TaskChangeProperties properties;
+
+    /**
+     * Читает с основной БД (транзакция не readOnly): на отставшей реплике изменение
+     * старше settle может быть ещё не видно, и токен перескочил бы его навсегда
+     * @param since - токен из прошлого ответа, null - с начала
+     * @param limit - размер порции
+     * @return - изменения после токена и новый токен
+     */
+    @Transactional
+    public TaskChangesDto changes(String since, int limit) {
+        Instant now = Instant.now();
+        long seq = 0;
+        if (since != null) {
+            TaskChangeToken token = TaskChangeTokenCodec.decode(since);
+            if (token.issuedAt().isBefore(now.minus(properties.tombstoneRetention()))) {
+                throw new ChangeTokenExpiredException(
+                        "Токен старше " + properties.tombstoneRetention().toDays() + " дней, нужна полная синхронизация");
+            }
+            seq = token.seq();
+        }
+        int size = Math.clamp(limit, 1, properties.maxLimit());
+
+        List<Change> rows = taskRepository.findChanges(seq, now.minus(properties.settle()), size + 1);
+        // Порция обрывается на первом неустоявшемся изменении: номера после него
+        // нельзя отдать, иначе токен перескочит транзакцию, которая ещё может закоммититься
+        int settled = 0;
+        while (settled < rows.size() && rows.get(settled).settled()) {
+            settled++;
+        }
+        rows = rows.subList(0, settled);
+        boolean hasMore = rows.size() > size;
+        List<Change> page = hasMore ? rows.subList(0, size) : rows;
+        long next = page.isEmpty() ? seq : page.getLast().seq();
+        return new TaskChangesDto(
+                page.stream().map(Change::change).toList(),
+                TaskChangeTokenCodec.encode(new TaskChangeToken(next, now)),
+                hasMore);
+    }
+
+    /**
+     * Удаляет надгробия старше срока хранения. Токены того же возраста
+     * отклоняются в {@link #changes}, поэтому удаление не теряется молча
+     */
+    @Scheduled(fixedDelayString = "${todo.changes.purge-interval:1h}")
+    @Transactional
+    public void purgeTombstones() {
+        int purged = taskRepository.purgeTombstones(Instant.now().minus(properties.tombstoneRetention()));
+        if (purged > 0) {
+            log.info("Удалено надгробий задач: {}", purged);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.TaskCountConfig;
+import io.github.vladislav.todolistspring.config.TaskCountProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskStatusCountDto;
+import io.github.vladislav.todolistspring.enums.CountMode;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.specification.TaskSpecification;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Подсчёт totalElements для страниц списка задач в режимах {@link CountMode}.
+ * Для фильтра только по статусу (или без фильтров) CACHED и ESTIMATED отвечают из счётчиков
+ * в памяти, которые обновляются записью через сервисы и перечитываются из БД раз в countersTtl.
+ * Между перечитываниями счётчики не видят запись других экземпляров приложения
+ *
+ * @author Степанов Владислав
+ */
+@Service
+@RequiredArgsConstructor
+public class TaskCountService {
+    private final TaskRepository taskRepository;
+    private final CacheManager cacheManager;
+    private final TaskCountProperties properties;
+
+    /**
+     * Поправки счётчиков и публикация перечитанных счётчиков идут под этой блокировкой,
+     * запрос в БД - без неё
+     */
+    private final Object countersLock = new Object();
+    private StatusCounters counters;
+    /**
+     * Число поправок счётчиков: по нему перечитывание узнаёт, что во время запроса пришёл коммит
+     */
+    private long adjustments;
+
+    /**
+     * @param filter - фильтры задач
+     * @param mode - режим подсчёта, null - режим по умолчанию
+     * @param page - уже прочитанная страница
+     * @return - количество задач или null для {@link CountMode#NONE}
+     */
+    @Transactional(readOnly = true)
+    public Long count(TaskFilterDto filter, CountMode mode, Slice<?> page) {
+        CountMode countMode = mode == null ? properties.defaultMode() : mode;
+        if (countMode == CountMode.NONE) {
+            return null;
+        }
+        // На последней странице total известен без запроса
+        if (!page.hasNext() && page.getPageable().isPaged() && (page.hasContent() || page.isFirst())) {
+            return page.getPageable().getOffset() + page.getNumberOfElements();
+        }
+        return switch (countMode) {
+            case EXACT -> exact(filter);
+            case CACHED -> isStatusOnly(filter) ? statusCount(filter.status()) : cached(filter);
+            case ESTIMATED -> isStatusOnly(filter) ? statusCount(filter.status()) : taskRepository.estimateCount(filter);
+            case NONE -> null;
+        };
+    }
+
+    /**
+     * Учитывает созданные задачи после коммита текущей транзакции
+     * @param status - статус созданных задач
+     * @param count - количество
+     */
+    public void created(TaskStatus status, long count) {
+        afterCommit(() -> {
+            adjust(current -> {
+                if (status != null) {
+                    current.counts().get(status).addAndGet(count);
+                }
+            });
+            evictCounts();
+        });
+    }
+
+    /**
+     * Учитывает смену статуса после коммита текущей транзакции
+     * @param from - прежний статус
+     * @param to - новый статус
+     * @param count - количество задач
+     */
+    public void moved(TaskStatus from, TaskStatus to, long count) {
+        afterCommit(() -> {
+            adjust(current -> {
+                if (from != null) {
+                    current.counts().get(from).addAndGet(-count);
+                }
+                if (to != null) {
+                    current.counts().get(to).addAndGet(count);
+                }
+            });
+            evictCounts();
+        });
+    }
+
+    /**
+     * Сбрасывает счётчики и кэш после коммита, когда прежние статусы изменённых задач неизвестны
+     */
+    public void invalidate() {
+        afterCommit(() -> {
+            synchronized (countersLock) {
+                adjustments++;
+                counters = null;
+            }
+            evictCounts();
+        });
+    }
+
+    private long exact(TaskFilterDto filter) {
+        return taskRepository.count(Specification.where(TaskSpecification.of(filter)));
+    }
+
+    private long cached(TaskFilterDto filter) {
+        Cache cache = cacheManager.getCache(TaskCountConfig.TASK_COUNTS_CACHE);
+        if (cache == null) {
+            return exact(filter);
+        }
+        Long count = cache.get(filter, () -> exact(filter));
+        return count == null ? exact(filter) : count;
+    }
+
+    private long statusCount(TaskStatus status) {
+        StatusCounters current;
+        long seen;
+        synchronized (countersLock) {
+            current = counters;
+            seen = adjustments;
+        }
+        if (current == null || System.nanoTime() - current.loadedAt() > properties.countersTtl().toNanos()) {
+            StatusCounters loaded = loadCounters();
+            synchronized (countersLock) {
+                // Коммит, поправка которого пришла во время запроса, мог не попасть в снимок,
+                // а его поправка ушла в прежние счётчики: такой снимок только отвечает на этот вызов
+                if (adjustments == seen && counters == current) {
+                    counters = loaded;
+                }
+            }
+            current = loaded;
+        }
+        if (status != null) {
+            return current.counts().get(status).get();
+        }
+        return current.counts().values().stream().mapToLong(AtomicLong::get).sum();
+    }
+
+    private StatusCounters loadCounters() {
+        Map<TaskStatus, AtomicLong> counts = new EnumMap<>(TaskStatus.class);
+        for (TaskStatus status : TaskStatus.values()) {
+            counts.put(status, new AtomicLong());
+        }
+        for (TaskStatusCountDto row : taskRepository.countByStatus()) {
+            if (row.status() != null) {
+                counts.get(row.status()).set(row.count());
+            }
+        }
+        return new StatusCounters(counts, System.nanoTime());
+    }
+
+    private void adjust(Consumer<StatusCounters> adjustment) {
+        synchronized (countersLock) {
+            adjustments++;
+            if (counters != null) {
+                adjustment.accept(counters);
+            }
+        }
+    }
+
+    private boolean isStatusOnly(TaskFilterDto filter) {
+        return filter.equals(TaskFilterDto.builder().status(filter.status()).build());
+    }
+
+    private void evictCounts() {
+        Cache cache = cacheManager.getCache(TaskCountConfig.TASK_COUNTS_CACHE);
+        if (cache != null) {
+            cache.clear();
+        }
+    }
+
+    /**
+     * До коммита новое значение ещё не видно другим транзакциям, и чтение успело бы закэшировать старое
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record StatusCounters(Map<TaskStatus, AtomicLong> counts, long loadedAt) {
+    }
+}
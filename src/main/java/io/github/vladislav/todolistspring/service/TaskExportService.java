@@ -0,0 +1,125 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.TaskExportProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskExportDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.ExportFormat;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.specification.TaskSpecification;
+import io.micrometer.core.annotation.Timed;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.StreamWriteFeature;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.SequenceWriter;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Потоковая выгрузка задач: строки читаются из курсора БД и сразу пишутся в ответ,
+ * каждая сущность отсоединяется от persistence context после записи,
+ * поэтому потребление памяти не зависит от количества задач
+ *
+ * @author Степанов Владислав
+ */
+@Service
+@Timed("todo.service")
+@RequiredArgsConstructor
+public class TaskExportService {
+    private static final Sort EXPORT_SORT = Sort.by("id");
+
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final TaskExportProperties properties;
+
+    /**
+     * @param filter - фильтры задач
+     * @param format - формат выгрузки
+     * @param out - поток ответа, не закрывается
+     * @return - количество выгруженных задач
+     */
+    @Transactional(readOnly = true)
+    public long export(TaskFilterDto filter, ExportFormat format, OutputStream out) throws IOException {
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
+        try (Stream<Task> tasks = taskRepository.stream(spec, EXPORT_SORT, properties.fetchSize())) {
+            return switch (format) {
+                case NDJSON -> writeNdjson(tasks.iterator(), out);
+                case CSV -> writeCsv(tasks.iterator(), out);
+            };
+        }
+    }
+
+    private long writeNdjson(Iterator<Task> tasks, OutputStream out) {
+        long count = 0;
+        // Поток ответа закрывает контейнер сервлетов, а не SequenceWriter
+        try (SequenceWriter writer = objectMapper.writer()
+                .without(StreamWriteFeature.AUTO_CLOSE_TARGET)
+                .withRootValueSeparator("\n")
+                .writeValues(out)) {
+            while (tasks.hasNext()) {
+                writer.write(next(tasks));
+                if (++count % properties.flushEvery() == 0) {
+                    writer.flush();
+                }
+            }
+        }
+        return count;
+    }
+
+    private long writeCsv(Iterator<Task> tasks, OutputStream out) throws IOException {
+        long count = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write("id,title,description,dueDate,status\n");
+        while (tasks.hasNext()) {
+            TaskExportDto task = next(tasks);
+            writer.write(String.valueOf(task.id()));
+            writer.write(',');
+            writer.write(csv(task.title()));
+            writer.write(',');
+            writer.write(csv(task.description()));
+            writer.write(',');
+            writer.write(task.dueDate() == null ? "" : task.dueDate().toString());
+            writer.write(',');
+            writer.write(task.status() == null ? "" : task.status().name());
+            writer.write('\n');
+            if (++count % properties.flushEvery() == 0) {
+                writer.flush();
+            }
+        }
+        writer.flush();
+        return count;
+    }
+
+    private TaskExportDto next(Iterator<Task> tasks) {
+        Task task = tasks.next();
+        TaskExportDto dto = taskMapper.toExportDto(task);
+        entityManager.detach(task);
+        return dto;
+    }
+
+    private String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.indexOf(',') < 0 && value.indexOf('"') < 0 && value.indexOf('\n') < 0 && value.indexOf('\r') < 0) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,178 @@
+package io.github.vladislav.todolistspring.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.vladislav.todolistspring.config.IdempotencyProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.exception.IdempotencyKeyReusedException;
+import io.github.vladislav.todolistspring.exception.InvalidIdempotencyKeyException;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskIdempotencyRepository.StoredResponse;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.micrometer.core.annotation.Timed;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Создание задачи с заголовком Idempotency-Key: повтор с тем же ключом возвращает исходный ответ,
+ * не обращаясь к таблице tasks.
+ * Готовые ответы держатся в ограниченном кэше в памяти, за его пределами - в task_idempotency_keys.
+ * Параллельные повторы в одном экземпляре ждут результат первого запроса по своему ключу,
+ * без общей блокировки; между экземплярами их разводит уникальный индекс на ключе,
+ * см. V8__create_task_idempotency_keys.sql
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Service
+@Timed("todo.service")
+public class TaskIdempotencyService {
+    private final TaskService taskService;
+    private final TaskRepository taskRepository;
+    private final TaskMapper taskMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final IdempotencyProperties properties;
+    private final MeterRegistry registry;
+    private final Cache<String, Response> completed;
+    private final Map<String, CompletableFuture<Response>> inFlight = new ConcurrentHashMap<>();
+
+    public TaskIdempotencyService(TaskService taskService,
+                                  TaskRepository taskRepository,
+                                  TaskMapper taskMapper,
+                                  TransactionTemplate transactionTemplate,
+                                  ObjectMapper objectMapper,
+                                  IdempotencyProperties properties,
+                                  MeterRegistry registry) {
+        this.taskService = taskService;
+        this.taskRepository = taskRepository;
+        this.taskMapper = taskMapper;
+        this.transactionTemplate = transactionTemplate;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.registry = registry;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(properties.maxEntries())
+                .expireAfterWrite(properties.ttl())
+                .build();
+    }
+
+    /**
+     * @param taskDto - создаваемая задача
+     * @param key - ключ из заголовка Idempotency-Key, null - без дедупликации
+     * @return - созданная задача или ответ на первый запрос с этим ключом
+     */
+    public TaskDto createTask(TaskDto taskDto, String key) {
+        if (key == null) {
+            return taskMapper.toDto(taskService.createTask(taskDto));
+        }
+        if (key.isBlank() || key.length() > properties.maxKeyLength()) {
+            throw new InvalidIdempotencyKeyException(
+                    "Idempotency-Key должен быть непустым и не длиннее " + properties.maxKeyLength() + " символов");
+        }
+        long fingerprint = fingerprint(taskDto);
+        Response response = completed.getIfPresent(key);
+        if (response != null) {
+            replayed("memory");
+        } else {
+            response = createOnce(taskDto, key, fingerprint);
+        }
+        if (response.fingerprint() != fingerprint) {
+            throw new IdempotencyKeyReusedException("Idempotency-Key уже использован с другим телом запроса");
+        }
+        return response.task();
+    }
+
+    /**
+     * Удаляет ключи старше ttl
+     */
+    @Scheduled(fixedDelayString = "${todo.idempotency.purge-interval:1h}")
+    @Transactional
+    public void purgeKeys() {
+        int purged = taskRepository.purgeIdempotencyKeys(Instant.now().minus(properties.ttl()));
+        if (purged > 0) {
+            log.info("Удалено ключей идемпотентности: {}", purged);
+        }
+    }
+
+    private Response createOnce(TaskDto taskDto, String key, long fingerprint) {
+        CompletableFuture<Response> mine = new CompletableFuture<>();
+        CompletableFuture<Response> running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            replayed("in-flight");
+            return await(running);
+        }
+        try {
+            Response response = transactionTemplate.execute(status -> claimAndCreate(taskDto, key, fingerprint));
+            // В кэш до удаления из inFlight: следующий повтор найдёт ответ в одном из них
+            completed.put(key, response);
+            mine.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, mine);
+        }
+    }
+
+    private Response claimAndCreate(TaskDto taskDto, String key, long fingerprint) {
+        Instant expired = Instant.now().minus(properties.ttl());
+        if (!taskRepository.claimIdempotencyKey(key, fingerprint, expired)) {
+            // Ключ занят и закоммичен другим запросом: INSERT дождался его транзакции
+            StoredResponse stored = taskRepository.findIdempotencyKey(key)
+                    .orElseThrow(() -> new IllegalStateException("Ключ идемпотентности " + key + " не найден"));
+            replayed("db");
+            return new Response(stored.fingerprint(), objectMapper.readValue(stored.response(), TaskDto.class));
+        }
+        Task task = taskService.createTask(taskDto);
+        TaskDto created = taskMapper.toDto(task);
+        taskRepository.completeIdempotencyKey(key, task.getId(), objectMapper.writeValueAsString(created));
+        return new Response(fingerprint, created);
+    }
+
+    private Response await(CompletableFuture<Response> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private long fingerprint(TaskDto taskDto) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(taskDto));
+            return ByteBuffer.wrap(digest).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private void replayed(String source) {
+        registry.counter("todo.idempotency.replayed", "source", source).increment();
+    }
+
+    /**
+     * Ответ на первый запрос с ключом и отпечаток его тела
+     */
+    private record Response(long fingerprint, TaskDto task) {
+    }
+}
@@ -1,72 +1,273 @@
 package io.github.vladislav.todolistspring.service;
 
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBulkStatusDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskVersionDto;
 import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.pagination.TaskCursor;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
 import io.github.vladislav.todolistspring.specification.TaskSpecification;
+import io.github.vladislav.todolistspring.enums.TaskField;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.PreconditionFailedException;
 import io.github.vladislav.todolistspring.mapper.TaskMapper;
 import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.StatusChange;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.TaskState;
+import io.micrometer.core.annotation.Timed;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.UpdateSpecification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 
 /**
  * @author Степанов Владислав
  */
 @Service
+@Timed("todo.service")
 @RequiredArgsConstructor
 public class TaskService {
     private final TaskRepository taskRepository;
     private final TaskMapper taskMapper;
+    private final TaskCountService taskCountService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final TaskStatusBuffer taskStatusBuffer;
 
     @Transactional(readOnly = true)
     public Page<Task> getAllTasks(TaskFilterDto filter, Pageable pageable) {
-        Specification<Task> spec = Specification.where(TaskSpecification.hasStatus(filter.status()));
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
         return taskRepository.findAll(spec, pageable);
     }
 
+    /**
+     * Страница задач сразу в TaskDto: без создания сущностей, регистрации в persistence context
+     * и снапшотов для dirty checking
+     * @param filter - фильтры задач
+     * @param pageable - страница и сортировка
+     * @return - срез задач, total считает {@link TaskCountService}
+     */
+    @Transactional(readOnly = true)
+    public Slice<TaskDto> getTaskDtos(TaskFilterDto filter, Pageable pageable) {
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
+        return taskRepository.findAllDto(spec, pageable);
+    }
+
+    /**
+     * Страница задач только с запрошенными полями, остальные колонки из БД не читаются
+     * @param filter - фильтры задач
+     * @param fields - запрошенные поля
+     * @param pageable - страница и сортировка
+     * @return - срез задач в виде "поле -> значение"
+     */
+    @Transactional(readOnly = true)
+    public Slice<Map<String, Object>> getTaskFields(TaskFilterDto filter, Set<TaskField> fields, Pageable pageable) {
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
+        return taskRepository.findAllFields(spec, fields, pageable);
+    }
+
+    /**
+     * Keyset-пагинация: следующая страница ищется по ключам сортировки последней задачи,
+     * поэтому глубокие страницы стоят столько же, сколько первая, и COUNT(*) не выполняется
+     * @param filter - фильтры задач
+     * @param cursor - позиция, с которой продолжается выборка
+     * @param limit - размер страницы
+     * @return - окно задач с признаком наличия следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public Window<Task> scrollTasks(TaskFilterDto filter, TaskCursor cursor, int limit) {
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
+        return taskRepository.findBy(spec, query -> query
+                .sortBy(cursor.sort())
+                .limit(limit)
+                .scroll(cursor.position()));
+    }
+
+    /**
+     * Полнотекстовый поиск с keyset-пагинацией по (релевантность desc, id).
+     * Фильтры списка применяются вместе с поиском в одном запросе
+     * @param filter - фильтры задач
+     * @param query - поисковый запрос
+     * @param after - позиция после последней выданной задачи, null - первая страница
+     * @param limit - размер страницы
+     * @return - окно результатов с признаком наличия следующей страницы
+     */
+    @Transactional(readOnly = true)
+    public Window<TaskSearchHitDto> searchTasks(TaskFilterDto filter, String query, TaskSearchCursor after, int limit) {
+        Specification<Task> spec = Specification.where(TaskSpecification.of(filter));
+        List<TaskSearchHitDto> hits = taskRepository.search(spec, query, after, limit + 1);
+        boolean hasNext = hits.size() > limit;
+        List<TaskSearchHitDto> content = hasNext ? hits.subList(0, limit) : hits;
+        return Window.from(content, i -> ScrollPosition.forward(Map.of(
+                "rank", content.get(i).rank(),
+                "id", content.get(i).id())), hasNext);
+    }
+
+    /**
+     * Задача по id. Статус задачи из {@link TaskStatusBuffer} вызывающий записывает до транзакции
+     * (TaskStatusBuffer.flush(id)), иначе версия не учтёт смену статуса клиента
+     * @param id - id задачи
+     * @return - задача
+     */
     @Transactional(readOnly = true)
     public Task getTaskById(UUID id) {
         return taskRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Задача с " + id + " не найдена"));
     }
 
+    /**
+     * Задача по id через кэш вместе с версией для ETag: в кэше хранится TaskVersionDto,
+     * а не управляемая сущность. Транзакция не readOnly, чтобы читать с основной БД:
+     * отставшая реплика положила бы в кэш старую версию до его TTL
+     * @param id - id задачи
+     * @return - задача, версия и время последнего изменения
+     */
+    @Cacheable(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    @Transactional
+    public TaskVersionDto getTaskVersion(UUID id) {
+        return taskMapper.toVersionDto(getTaskById(id));
+    }
+
     public Task createTask(TaskDto taskDto) {
-        return taskRepository.save(taskMapper.toEntity(taskDto));
+        Task task = taskRepository.save(taskMapper.toEntity(taskDto));
+        taskCountService.created(task.getStatus(), 1);
+        taskEventBroadcaster.created(task);
+        return task;
     }
 
+    /**
+     * Изменяет задачу, если её версия совпадает с ожидаемой. Параллельное изменение
+     * между чтением и flush отсекает сам Hibernate через UPDATE ... WHERE version = ?
+     * Статус задачи из {@link TaskStatusBuffer} вызывающий записывает до транзакции
+     * @param taskDto - изменяемые поля
+     * @param id - id задачи
+     * @param expectedVersion - версия из If-Match, null - без проверки
+     * @return - задача после изменения
+     */
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     @Transactional
-    public Task updateTask(TaskPatchDto taskDto, UUID id) {
+    public Task updateTask(TaskPatchDto taskDto, UUID id, Long expectedVersion) {
         Task optionalTask = taskRepository.findById(id).orElseThrow(() ->
                 new EntityNotFoundException("Задача с " + id + " не найдена"));
+        if (expectedVersion != null && !expectedVersion.equals(optionalTask.getVersion())) {
+            throw versionMismatch(id, expectedVersion);
+        }
 
         taskMapper.updateTaskFromDto(taskDto, optionalTask);
+        taskEventBroadcaster.updated(optionalTask);
         return optionalTask;
     }
 
-    @Transactional
-    public Task updateTaskStatus(TaskStatus status, UUID id) {
-        Task optionalTask = taskRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException("Задача с " + id + " не найдена"));
+    /**
+     * Меняет статус одним UPDATE без загрузки сущности и dirty checking,
+     * версия проверяется в том же UPDATE, прежний статус для счётчиков он же и возвращает.
+     * При включённой отложенной записи смена без If-Match
+     * только ставится в {@link TaskStatusBuffer}, событие и пересчёт счётчиков будут после записи,
+     * а смена с If-Match сначала записывает статус задачи из буфера.
+     * Своей транзакции нет: место в буфере ожидается без соединения с БД, а UPDATE транзакционный сам
+     * @param status - новый статус
+     * @param id - id задачи
+     * @param expectedVersion - версия из If-Match, null - без проверки
+     * @return - задача после обновления, при отложенной записи - без версии и времени изменения:
+     *           они станут известны только после записи
+     */
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
+    public Task updateTaskStatus(TaskStatus status, UUID id, Long expectedVersion) {
+        if (expectedVersion == null && taskStatusBuffer.isEnabled()) {
+            Task task = taskRepository.findById(id).orElseThrow(() ->
+                    new EntityNotFoundException("Задача с " + id + " не найдена"));
+            taskStatusBuffer.put(id, status);
+            return withStatus(task, status);
+        }
+        taskStatusBuffer.flush(id);
+        StatusChange change = taskRepository.changeStatus(id, status, expectedVersion).orElseThrow(() -> {
+            // Пустой результат при проверке версии: задачи нет или версия изменилась
+            if (expectedVersion != null && taskRepository.existsById(id)) {
+                return versionMismatch(id, expectedVersion);
+            }
+            return new EntityNotFoundException("Задача с " + id + " не найдена");
+        });
+        TaskState previous = change.previous();
+        // Счётчики ведутся по горячей секции: задача из архива попадает в них заново
+        if (previous.archived()) {
+            taskCountService.created(status, 1);
+        } else {
+            taskCountService.moved(previous.status(), status, 1);
+        }
+        taskEventBroadcaster.statusChanged(change.task());
+        return change.task();
+    }
 
-        optionalTask.setStatus(status);
-        return optionalTask;
+    /**
+     * Переводит все задачи, подходящие под условия, в новый статус одним UPDATE.
+     * Буфер статусов вызывающий записывает до транзакции, иначе более старые статусы
+     * из буфера перетёрли бы массовое изменение
+     * @param bulkStatus - условия отбора и новый статус
+     * @return - количество обновлённых задач
+     */
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, allEntries = true)
+    @Transactional
+    public long updateTasksStatus(TaskBulkStatusDto bulkStatus) {
+        // Только горячая секция: счётчики статусов ведутся по ней, и moved для архивных задач был бы неверен
+        UpdateSpecification<Task> spec = UpdateSpecification.<Task>update((root, update, cb) ->
+                        update.set(root.<TaskStatus>get("status"), bulkStatus.newStatus())
+                                .set(root.<Long>get("version"), cb.sum(root.<Long>get("version"), 1L))
+                                .set(root.<Instant>get("updatedAt"), Instant.now()))
+                .where(TaskSpecification.hasStatus(bulkStatus.status())
+                        .and(TaskSpecification.dueBefore(bulkStatus.dueBefore()))
+                        .and(TaskSpecification.notArchived()));
+        long updated = taskRepository.update(spec);
+        taskCountService.moved(bulkStatus.status(), bulkStatus.newStatus(), updated);
+        taskEventBroadcaster.bulkStatusChanged(bulkStatus, updated);
+        return updated;
     }
 
+    @CacheEvict(cacheNames = CacheConfig.TASKS_CACHE, key = "#id")
     @Transactional
     public void deleteTask(UUID id) {
-        Task task = taskRepository.findById(id).orElseThrow(() ->
-                new EntityNotFoundException("Задача с " + id + " не найдена")
-        );
-        taskRepository.delete(task);
+        TaskState deleted = taskRepository.deleteReturningState(id).orElseThrow(() ->
+                new EntityNotFoundException("Задача с " + id + " не найдена"));
+        if (!deleted.archived()) {
+            taskCountService.created(deleted.status(), -1);
+        }
+        taskEventBroadcaster.deleted(id);
+    }
+
+    /**
+     * Копия задачи с ещё не записанным статусом, без версии и времени изменения
+     */
+    private Task withStatus(Task task, TaskStatus status) {
+        return Task.builder()
+                .id(task.getId())
+                .title(task.getTitle())
+                .description(task.getDescription())
+                .dueDate(task.getDueDate())
+                .status(status)
+                .build();
+    }
+
+    private PreconditionFailedException versionMismatch(UUID id, long expectedVersion) {
+        return new PreconditionFailedException(
+                "Задача с " + id + " изменена: ожидалась версия " + expectedVersion);
     }
 
 }
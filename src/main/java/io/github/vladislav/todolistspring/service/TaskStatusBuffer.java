@@ -0,0 +1,264 @@
+package io.github.vladislav.todolistspring.service;
+
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.config.StatusBufferProperties;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.exception.DatabaseBusyException;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Отложенная запись смены статуса (todo.status-buffer.enabled). Статусы копятся в памяти
+ * по id задачи, повторная смена статуса той же задачи заменяет предыдущую, и раз в flushInterval
+ * (или при maxBatch ожидающих) всё накопленное пишется одним UPDATE в одной транзакции.
+ * Место в буфере ограничено capacity: когда он полон, запрос ждёт записи не дольше offerTimeout
+ * и получает 503. Чтение задачи и смена статуса с проверкой версии сначала записывают её статус
+ * из буфера ({@link #flush(UUID)}), поэтому видят версию с учётом этой смены. Версию после записи
+ * буфер не обещает: до неё задачу может записать идущая порция, и версия в ответе на смену была бы неверной.
+ * flush вызывается только вне транзакции: запись берёт своё соединение, пока держит блокировку буфера,
+ * и вызывающий с открытой транзакцией занимал бы второе соединение из пула в ожидании этой блокировки.
+ * Блокировка - ReentrantLock, а не synchronized: JDBC под монитором закрепляет виртуальный поток за носителем
+ * При остановке приложения буфер записывается до конца. Статус, не записанный из-за аварийного
+ * завершения процесса, теряется - для таких задач отложенную запись не включать
+ *
+ * @author Степанов Владислав
+ */
+@Slf4j
+@Component
+public class TaskStatusBuffer {
+    private final Map<UUID, TaskStatus> pending = new ConcurrentHashMap<>();
+    private final Map<UUID, TaskStatus> inFlight = new ConcurrentHashMap<>();
+    private final StatusBufferProperties properties;
+    private final TaskRepository taskRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final CacheManager cacheManager;
+    private final TaskCountService taskCountService;
+    private final TaskEventBroadcaster taskEventBroadcaster;
+    private final Semaphore capacity;
+    private final ReentrantLock flushLock = new ReentrantLock();
+    private final Timer flushTimer;
+    private final Counter rejected;
+    private ScheduledExecutorService flusher;
+
+    public TaskStatusBuffer(StatusBufferProperties properties,
+                            TaskRepository taskRepository,
+                            PlatformTransactionManager transactionManager,
+                            CacheManager cacheManager,
+                            TaskCountService taskCountService,
+                            TaskEventBroadcaster taskEventBroadcaster,
+                            MeterRegistry registry) {
+        this.properties = properties;
+        this.taskRepository = taskRepository;
+        // Своя транзакция: запись буфера не должна присоединяться к транзакции вызывающего
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cacheManager = cacheManager;
+        this.taskCountService = taskCountService;
+        this.taskEventBroadcaster = taskEventBroadcaster;
+        this.capacity = new Semaphore(properties.capacity());
+        this.flushTimer = Timer.builder("todo.status-buffer.flush")
+                .description("Запись накопленных статусов одним UPDATE")
+                .register(registry);
+        this.rejected = Counter.builder("todo.status-buffer.rejected")
+                .description("Смены статуса, отклонённые из-за заполненного буфера")
+                .register(registry);
+        Gauge.builder("todo.status-buffer.pending", pending, Map::size)
+                .description("Задачи, ожидающие записи статуса")
+                .register(registry);
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.enabled()) {
+            return;
+        }
+        flusher = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("task-status-flush").factory());
+        long interval = properties.flushInterval().toNanos();
+        flusher.scheduleWithFixedDelay(this::flushQuietly, interval, interval, TimeUnit.NANOSECONDS);
+    }
+
+    public boolean isEnabled() {
+        return properties.enabled();
+    }
+
+    /**
+     * Ставит статус задачи в очередь на запись, заменяя ещё не записанный.
+     * Ожидание места идёт без транзакции: вызывающий не должен держать соединение с БД
+     * @param id - id задачи
+     * @param status - новый статус
+     */
+    public void put(UUID id, TaskStatus status) {
+        if (pending.replace(id, status) != null) {
+            return;
+        }
+        acquire();
+        if (pending.put(id, status) != null) {
+            // Другой поток успел добавить ту же задачу и уже занял место
+            capacity.release();
+        }
+        if (flusher != null && pending.size() >= properties.maxBatch()) {
+            flusher.execute(this::flushQuietly);
+        }
+    }
+
+    /**
+     * @param id - id задачи
+     * @return - статус, ещё не записанный в БД, или null
+     */
+    public TaskStatus pending(UUID id) {
+        TaskStatus status = pending.get(id);
+        return status != null ? status : inFlight.get(id);
+    }
+
+    /**
+     * Записывает статус одной задачи, если он ждёт записи, или дожидается идущей записи
+     * @param id - id задачи
+     */
+    public void flush(UUID id) {
+        if (!pending.containsKey(id) && !inFlight.containsKey(id)) {
+            return;
+        }
+        flushLock.lock();
+        try {
+            if (pending.containsKey(id)) {
+                flushBatch(Set.of(id));
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    /**
+     * Записывает всё накопленное. Вызывается по таймеру, перед массовой сменой статуса
+     * (иначе запись буфера перетёрла бы её) и при остановке
+     */
+    public void flush() {
+        flushLock.lock();
+        try {
+            while (!pending.isEmpty()) {
+                if (flushBatch(pending.keySet()) == 0) {
+                    return;
+                }
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    @PreDestroy
+    void stop() {
+        if (flusher == null) {
+            return;
+        }
+        flusher.shutdown();
+        try {
+            flusher.awaitTermination(properties.offerTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush();
+    }
+
+    private void acquire() {
+        boolean acquired;
+        try {
+            acquired = capacity.tryAcquire(properties.offerTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            throw new DatabaseBusyException("Буфер смены статусов заполнен, повторите запрос позже");
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (RuntimeException e) {
+            log.error("Не удалось записать накопленные статусы, повтор при следующей записи", e);
+        }
+    }
+
+    private int flushBatch(Set<UUID> candidates) {
+        List<UUID> ids = new ArrayList<>();
+        List<TaskStatus> statuses = new ArrayList<>();
+        for (UUID id : candidates) {
+            if (ids.size() >= properties.maxBatch()) {
+                break;
+            }
+            TaskStatus status = pending.get(id);
+            if (status == null) {
+                continue;
+            }
+            // Сначала в inFlight, потом из pending: чтение не должно увидеть задачу ни там, ни там
+            inFlight.put(id, status);
+            if (pending.remove(id, status)) {
+                ids.add(id);
+                statuses.add(status);
+            } else {
+                inFlight.remove(id, status);
+            }
+        }
+        if (ids.isEmpty()) {
+            return 0;
+        }
+
+        List<Task> updated;
+        try {
+            updated = flushTimer.record(() -> transactionTemplate.execute(tx -> taskRepository.updateStatuses(
+                    ids.toArray(UUID[]::new),
+                    statuses.stream().map(Enum::name).toArray(String[]::new))));
+        } catch (RuntimeException e) {
+            // Возвращаем в буфер, если за это время не пришёл более новый статус
+            for (int i = 0; i < ids.size(); i++) {
+                if (pending.putIfAbsent(ids.get(i), statuses.get(i)) != null) {
+                    capacity.release();
+                }
+                inFlight.remove(ids.get(i), statuses.get(i));
+            }
+            throw e;
+        }
+
+        Cache cache = cacheManager.getCache(CacheConfig.TASKS_CACHE);
+        for (int i = 0; i < ids.size(); i++) {
+            inFlight.remove(ids.get(i), statuses.get(i));
+            if (cache != null) {
+                cache.evict(ids.get(i));
+            }
+        }
+        capacity.release(ids.size());
+        if (updated != null && !updated.isEmpty()) {
+            taskCountService.invalidate();
+            updated.forEach(taskEventBroadcaster::statusChanged);
+        }
+        return ids.size();
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.vladislav.todolistspring.specification;
+
+import org.hibernate.boot.model.FunctionContributions;
+import org.hibernate.boot.model.FunctionContributor;
+import org.hibernate.metamodel.model.domain.ReturnableType;
+import org.hibernate.query.sqm.function.AbstractSqmSelfRenderingFunctionDescriptor;
+import org.hibernate.query.sqm.produce.function.StandardArgumentsValidators;
+import org.hibernate.query.sqm.produce.function.StandardFunctionArgumentTypeResolvers;
+import org.hibernate.query.sqm.produce.function.StandardFunctionReturnTypeResolvers;
+import org.hibernate.sql.ast.SqlAstNodeRenderingMode;
+import org.hibernate.sql.ast.SqlAstTranslator;
+import org.hibernate.sql.ast.spi.SqlAppender;
+import org.hibernate.sql.ast.tree.SqlAstNode;
+import org.hibernate.sql.ast.tree.expression.ColumnReference;
+import org.hibernate.sql.ast.tree.expression.Expression;
+import org.hibernate.type.BasicType;
+import org.hibernate.type.StandardBasicTypes;
+
+import java.util.List;
+
+/**
+ * Функции полнотекстового поиска для Criteria: task_search_match(id, query) и task_search_rank(id, query).
+ * Колонка tasks.search_vector не отображена в Task, чтобы не читаться при каждой загрузке сущности,
+ * поэтому первым аргументом передаётся id задачи, а функция берёт из него алиас таблицы.
+ * Регистрируется через META-INF/services/org.hibernate.boot.model.FunctionContributor
+ *
+ * @author Степанов Владислав
+ */
+public class TaskSearchFunctions implements FunctionContributor {
+    public static final String MATCH = "task_search_match";
+    public static final String RANK = "task_search_rank";
+
+    /**
+     * Конфигурация должна совпадать с выражением search_vector в миграции V6
+     */
+    private static final String TS_CONFIG = "'russian'";
+
+    @Override
+    public void contributeFunctions(FunctionContributions contributions) {
+        BasicType<Boolean> booleanType = contributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.BOOLEAN);
+        BasicType<Float> floatType = contributions.getTypeConfiguration()
+                .getBasicTypeRegistry().resolve(StandardBasicTypes.FLOAT);
+        contributions.getFunctionRegistry().register(MATCH, new SearchFunction(MATCH, booleanType, false));
+        contributions.getFunctionRegistry().register(RANK, new SearchFunction(RANK, floatType, true));
+    }
+
+    private static class SearchFunction extends AbstractSqmSelfRenderingFunctionDescriptor {
+        private final boolean rank;
+
+        SearchFunction(String name, BasicType<?> type, boolean rank) {
+            super(name,
+                    StandardArgumentsValidators.exactly(2),
+                    StandardFunctionReturnTypeResolvers.invariant(type),
+                    StandardFunctionArgumentTypeResolvers.NULL);
+            this.rank = rank;
+        }
+
+        @Override
+        public void render(SqlAppender sql,
+                           List<? extends SqlAstNode> arguments,
+                           ReturnableType<?> returnType,
+                           SqlAstTranslator<?> translator) {
+            ColumnReference id = ((Expression) arguments.get(0)).getColumnReference();
+            if (id == null) {
+                throw new IllegalArgumentException(getName() + ": первым аргументом должен быть путь к id задачи");
+            }
+            String vector = id.getQualifier() == null ? "search_vector" : id.getQualifier() + ".search_vector";
+
+            sql.append(rank ? "ts_rank(" + vector + ", " : vector + " @@ ");
+            sql.append("websearch_to_tsquery(" + TS_CONFIG + ", ");
+            translator.render(arguments.get(1), SqlAstNodeRenderingMode.DEFAULT);
+            sql.append(rank ? "))" : ")");
+        }
+    }
+}
@@ -1,22 +1,152 @@
 package io.github.vladislav.todolistspring.specification;
 
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
 import io.github.vladislav.todolistspring.entity.Task;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.From;
 import lombok.experimental.UtilityClass;
-import org.springframework.data.jpa.domain.Specification;
+import org.hibernate.query.criteria.HibernateCriteriaBuilder;
+import org.springframework.data.jpa.domain.PredicateSpecification;
+
+import java.time.LocalDate;
+import java.util.Collection;
 
 /**
+ * Предикаты задач. {@link PredicateSpecification} подходит и для выборок, и для массовых UPDATE/DELETE.
+ * Значения фильтров передаются в запрос параметрами, поэтому запросы одной формы
+ * переиспользуют план из hibernate.criteria.plan_cache_enabled
+ *
  * @author Степанов Владислав
  */
 @UtilityClass
 public class TaskSpecification {
+    private static final char LIKE_ESCAPE = '\\';
+
+    /**
+     * Собирает все фильтры из DTO, незаданные фильтры не добавляют условий
+     * @param filter - фильтры задач
+     * @return - Specification со всеми заданными фильтрами
+     */
+    public PredicateSpecification<Task> of(TaskFilterDto filter) {
+        return hasStatus(filter.status())
+                .and(hasStatusIn(filter.statuses()))
+                .and(dueFrom(filter.dueFrom()))
+                .and(dueTo(filter.dueTo()))
+                .and(Boolean.TRUE.equals(filter.overdue()) ? overdue(LocalDate.now()) : PredicateSpecification.unrestricted())
+                .and(titleStartsWith(filter.titlePrefix()))
+                .and(Boolean.TRUE.equals(filter.includeArchived()) ? PredicateSpecification.unrestricted() : notArchived());
+    }
+
+    /**
+     * Оставляет только горячую секцию: по archived = false планировщик не читает tasks_archive
+     * @return - Specification без архивных задач
+     */
+    public PredicateSpecification<Task> notArchived() {
+        return (root, cb) -> cb.isFalse(root.get("archived"));
+    }
+
     /**
      * Добавляет фильтр по статусу в Specification
      * @param status - статус задачи
      * @return - Specification с фильтром по статусу
      */
-    public Specification<Task> hasStatus(TaskStatus status) {
-        return (root, query, cb) ->
+    public PredicateSpecification<Task> hasStatus(TaskStatus status) {
+        return (root, cb) ->
                 status == null ? null : cb.equal(root.get("status"), status);
     }
+
+    /**
+     * Добавляет фильтр по нескольким статусам (IN)
+     * @param statuses - допустимые статусы
+     * @return - Specification с фильтром по статусам
+     */
+    public PredicateSpecification<Task> hasStatusIn(Collection<TaskStatus> statuses) {
+        return (root, cb) ->
+                statuses == null || statuses.isEmpty() ? null : root.get("status").in(statuses);
+    }
+
+    /**
+     * Добавляет фильтр по сроку выполнения строго раньше указанной даты
+     * @param date - граница срока (не включительно)
+     * @return - Specification с фильтром по сроку
+     */
+    public PredicateSpecification<Task> dueBefore(LocalDate date) {
+        return (root, cb) ->
+                date == null ? null : cb.lessThan(root.get("dueDate"), date);
+    }
+
+    /**
+     * Добавляет фильтр по сроку выполнения не раньше указанной даты
+     * @param date - начало диапазона (включительно)
+     * @return - Specification с фильтром по сроку
+     */
+    public PredicateSpecification<Task> dueFrom(LocalDate date) {
+        return (root, cb) ->
+                date == null ? null : cb.greaterThanOrEqualTo(root.get("dueDate"), date);
+    }
+
+    /**
+     * Добавляет фильтр по сроку выполнения не позже указанной даты
+     * @param date - конец диапазона (включительно)
+     * @return - Specification с фильтром по сроку
+     */
+    public PredicateSpecification<Task> dueTo(LocalDate date) {
+        return (root, cb) ->
+                date == null ? null : cb.lessThanOrEqualTo(root.get("dueDate"), date);
+    }
+
+    /**
+     * Добавляет фильтр просроченных задач: срок прошёл, а задача не завершена.
+     * Условие status <> DONE совпадает с частичным индексом tasks_active_due_date_id_idx
+     * @param today - текущая дата
+     * @return - Specification с фильтром просроченных задач
+     */
+    public PredicateSpecification<Task> overdue(LocalDate today) {
+        return (root, cb) -> cb.and(
+                cb.notEqual(root.get("status"), TaskStatus.DONE),
+                cb.lessThan(root.get("dueDate"), today));
+    }
+
+    /**
+     * Добавляет фильтр по началу названия, спецсимволы LIKE в префиксе экранируются
+     * @param prefix - префикс названия
+     * @return - Specification с фильтром по названию
+     */
+    public PredicateSpecification<Task> titleStartsWith(String prefix) {
+        return (root, cb) -> prefix == null || prefix.isBlank() ? null : cb.like(
+                root.get("title"),
+                prefix.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_") + "%",
+                LIKE_ESCAPE);
+    }
+
+    /**
+     * Добавляет полнотекстовый поиск по названию и описанию (GIN-индекс tasks_search_vector_idx).
+     * Запрос разбирается websearch_to_tsquery: слова через пробел, "фраза", -исключение, or
+     * @param query - поисковый запрос
+     * @return - Specification с условием совпадения
+     */
+    public PredicateSpecification<Task> matches(String query) {
+        return (root, cb) -> query == null || query.isBlank() ? null
+                : cb.isTrue(cb.function(TaskSearchFunctions.MATCH, Boolean.class, root.get("id"), value(cb, query)));
+    }
+
+    /**
+     * Релевантность задачи запросу (ts_rank), совпадение в названии весит больше, чем в описании
+     * @param root - корень запроса по задачам
+     * @param cb - CriteriaBuilder
+     * @param query - поисковый запрос
+     * @return - выражение релевантности
+     */
+    public Expression<Float> rank(From<?, Task> root, CriteriaBuilder cb, String query) {
+        return cb.function(TaskSearchFunctions.RANK, Float.class, root.get("id"), value(cb, query));
+    }
+
+    /**
+     * cb.literal встроил бы текст запроса в SQL, и каждый новый запрос получал бы свой план
+     */
+    private Expression<String> value(CriteriaBuilder cb, String value) {
+        return ((HibernateCriteriaBuilder) cb).value(value);
+    }
 }
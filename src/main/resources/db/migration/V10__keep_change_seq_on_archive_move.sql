@@ -0,0 +1,18 @@
+-- Перенос в архив меняет только archived, а лента изменений видит обе секции и archived не отдаёт:
+-- новый change_seq давал клиентам пустое изменение. Такой перенос номер изменения сохраняет.
+-- Перенос строки между секциями выполняется как DELETE + INSERT: BEFORE UPDATE срабатывает в исходной
+-- секции, затем BEFORE INSERT - в целевой, уже со значением change_seq из UPDATE. В tasks_archive
+-- строки попадают только переносом, поэтому заданный change_seq там сохраняется
+create or replace function tasks_stamp_change_seq() returns trigger as
+$$
+begin
+    if tg_op = 'UPDATE' and not old.archived and new.archived
+        and (new.title, new.description, new.due_date, new.status, new.version, new.updated_at)
+            is not distinct from (old.title, old.description, old.due_date, old.status, old.version, old.updated_at) then
+        new.change_seq := old.change_seq;
+    elsif tg_op = 'UPDATE' or not new.archived or new.change_seq is null then
+        new.change_seq := nextval('task_change_seq');
+    end if;
+    return new;
+end;
+$$ language plpgsql;
@@ -0,0 +1,10 @@
+-- Схема, которую раньше создавал hibernate.ddl-auto=update.
+-- Для существующих баз применяется baseline (spring.flyway.baseline-on-migrate)
+create table if not exists tasks
+(
+    id          uuid         not null primary key,
+    title       varchar(255) not null,
+    description varchar(255),
+    due_date    date         not null,
+    status      varchar(255) check (status in ('TODO', 'IN_PROGRESS', 'DONE'))
+);
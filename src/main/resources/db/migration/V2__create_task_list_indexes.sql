@@ -0,0 +1,13 @@
+-- CONCURRENTLY не блокирует запись в tasks на время построения, Flyway выполняет
+-- такую миграцию вне транзакции. Если построение прервалось, индекс остаётся INVALID:
+-- его нужно удалить вручную и перезапустить миграцию
+
+-- GET /v1/tasks?status=...&sort=dueDate и /scroll со статусом:
+-- WHERE status = ? ORDER BY due_date, id (+ keyset по (due_date, id))
+create index concurrently if not exists tasks_status_due_date_id_idx on tasks (status, due_date, id);
+
+-- Списки без фильтра по статусу, отсортированные по сроку
+create index concurrently if not exists tasks_due_date_id_idx on tasks (due_date, id);
+
+-- Незавершённые задачи - основной рабочий набор, завершённые строки в индекс не попадают
+create index concurrently if not exists tasks_active_due_date_id_idx on tasks (due_date, id) where status <> 'DONE';
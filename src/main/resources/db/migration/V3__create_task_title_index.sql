@@ -0,0 +1,3 @@
+-- Поиск по началу названия: title LIKE 'префикс%'. varchar_pattern_ops нужен,
+-- чтобы LIKE использовал индекс при любой collation базы
+create index concurrently if not exists tasks_title_pattern_idx on tasks (title varchar_pattern_ops);
@@ -0,0 +1,5 @@
+-- Версия для оптимистичной блокировки и ETag, время изменения для Last-Modified.
+-- Константные значения по умолчанию (now() вычисляется один раз) не переписывают таблицу
+alter table tasks
+    add column if not exists version    bigint      not null default 0,
+    add column if not exists updated_at timestamptz not null default now();
@@ -0,0 +1,48 @@
+-- Лента изменений для GET /v1/tasks/changes. Номер изменения выдаёт триггер из одной
+-- последовательности, поэтому его получают и вставки через JPA, и UPDATE в обход Hibernate
+create sequence if not exists task_change_seq;
+
+alter table tasks add column if not exists change_seq bigint;
+update tasks set change_seq = nextval('task_change_seq') where change_seq is null;
+alter table tasks alter column change_seq set not null;
+
+create or replace function tasks_stamp_change_seq() returns trigger as
+$$
+begin
+    new.change_seq := nextval('task_change_seq');
+    return new;
+end;
+$$ language plpgsql;
+
+create or replace trigger tasks_change_seq
+    before insert or update on tasks
+    for each row execute function tasks_stamp_change_seq();
+
+-- Надгробия удалённых задач: удаление по одной, пакетом и массовое попадает в ленту одинаково.
+-- Старые надгробия удаляет TaskChangeService, см. todo.changes.tombstone-retention
+create table if not exists task_tombstones
+(
+    id         uuid        not null primary key,
+    change_seq bigint      not null,
+    deleted_at timestamptz not null default now()
+);
+
+create or replace function tasks_write_tombstone() returns trigger as
+$$
+begin
+    insert into task_tombstones (id, change_seq)
+    values (old.id, nextval('task_change_seq'))
+    on conflict (id) do update set change_seq = excluded.change_seq, deleted_at = excluded.deleted_at;
+    return old;
+end;
+$$ language plpgsql;
+
+create or replace trigger tasks_tombstone
+    after delete on tasks
+    for each row execute function tasks_write_tombstone();
+
+-- WHERE change_seq > ? ORDER BY change_seq LIMIT ?: чтение ленты пропорционально числу изменений.
+-- Без CONCURRENTLY: миграция и так переписывает tasks в одной транзакции
+create index if not exists tasks_change_seq_idx on tasks (change_seq);
+create index if not exists task_tombstones_change_seq_idx on task_tombstones (change_seq);
+create index if not exists task_tombstones_deleted_at_idx on task_tombstones (deleted_at);
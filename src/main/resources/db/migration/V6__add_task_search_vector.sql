@@ -0,0 +1,12 @@
+-- Полнотекстовый поиск по названию и описанию. Хранимая генерируемая колонка пересчитывается
+-- самой БД при каждой записи, в том числе UPDATE в обход Hibernate. Добавление колонки
+-- переписывает таблицу под эксклюзивной блокировкой - на больших базах выполнять в окно обслуживания.
+-- Конфигурация 'russian' должна совпадать с TaskSearchFunctions.TS_CONFIG
+alter table tasks
+    add column if not exists search_vector tsvector generated always as (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) stored;
+
+-- search_vector @@ websearch_to_tsquery(...)
+create index if not exists tasks_search_vector_idx on tasks using gin (search_vector);
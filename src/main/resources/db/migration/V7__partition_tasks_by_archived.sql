@@ -0,0 +1,72 @@
+-- Горячие и архивные задачи. tasks становится таблицей, секционированной по archived:
+-- прежняя таблица подключается секцией tasks_hot без копирования строк, завершённые задачи
+-- переносит в tasks_archive TaskArchiveService. Списки по умолчанию читают только tasks_hot,
+-- поэтому её индексы остаются маленькими, а поиск по id и лента изменений видят обе секции.
+-- Подключение проверяет все строки tasks_hot - на больших базах выполнять в окно обслуживания
+alter table tasks add column if not exists archived boolean not null default false;
+
+alter table tasks rename to tasks_hot;
+-- Первичный ключ секционированной таблицы обязан включать ключ секционирования
+alter table tasks_hot drop constraint if exists tasks_pkey;
+create unique index if not exists tasks_hot_id_archived_idx on tasks_hot (id, archived);
+-- Триггеры переезжают на родительскую таблицу и действуют в обеих секциях
+drop trigger if exists tasks_change_seq on tasks_hot;
+drop trigger if exists tasks_tombstone on tasks_hot;
+
+create table tasks
+(
+    id            uuid         not null,
+    title         varchar(255) not null,
+    description   varchar(255),
+    due_date      date         not null,
+    status        varchar(255),
+    version       bigint       not null default 0,
+    updated_at    timestamptz  not null default now(),
+    change_seq    bigint       not null,
+    search_vector tsvector generated always as (
+        setweight(to_tsvector('russian', coalesce(title, '')), 'A') ||
+        setweight(to_tsvector('russian', coalesce(description, '')), 'B')
+    ) stored,
+    archived      boolean      not null default false,
+    primary key (id, archived)
+) partition by list (archived);
+
+alter table tasks attach partition tasks_hot for values in (false);
+create table tasks_archive partition of tasks for values in (true);
+alter table tasks_archive add constraint tasks_archive_status_check
+    check (status in ('TODO', 'IN_PROGRESS', 'DONE'));
+
+-- Индексы родительской таблицы: в tasks_hot подключаются существующие индексы с тем же определением
+-- (их имена не меняются), в tasks_archive создаются новые
+create index if not exists tasks_p_status_due_date_id_idx on tasks (status, due_date, id);
+create index if not exists tasks_p_due_date_id_idx on tasks (due_date, id);
+create index if not exists tasks_p_active_due_date_id_idx on tasks (due_date, id) where status <> 'DONE';
+create index if not exists tasks_p_title_pattern_idx on tasks (title varchar_pattern_ops);
+create index if not exists tasks_p_change_seq_idx on tasks (change_seq);
+create index if not exists tasks_p_search_vector_idx on tasks using gin (search_vector);
+
+-- Выборка архиватора: завершённые задачи, не менявшиеся дольше todo.archive.after
+create index if not exists tasks_hot_done_updated_at_idx on tasks_hot (updated_at) where status = 'DONE';
+
+-- Перенос строки между секциями выполняется как DELETE + INSERT, и AFTER DELETE срабатывает
+-- для задачи, которая не удалялась. Надгробие пишется, только если задачи нет ни в одной секции
+create or replace function tasks_write_tombstone() returns trigger as
+$$
+begin
+    if exists (select 1 from tasks where id = old.id) then
+        return old;
+    end if;
+    insert into task_tombstones (id, change_seq)
+    values (old.id, nextval('task_change_seq'))
+    on conflict (id) do update set change_seq = excluded.change_seq, deleted_at = excluded.deleted_at;
+    return old;
+end;
+$$ language plpgsql;
+
+create or replace trigger tasks_change_seq
+    before insert or update on tasks
+    for each row execute function tasks_stamp_change_seq();
+
+create or replace trigger tasks_tombstone
+    after delete on tasks
+    for each row execute function tasks_write_tombstone();
@@ -0,0 +1,15 @@
+-- Ключи идемпотентности POST /v1/tasks/create. Ключ занимается INSERT ... ON CONFLICT в той же
+-- транзакции, что и вставка задачи: параллельный повтор с тем же ключом ждёт на уникальном индексе
+-- до коммита первого запроса и затем читает сохранённый ответ, не вставляя задачу второй раз.
+-- fingerprint - первые 8 байт SHA-256 тела запроса, ответ хранится целиком, чтобы повтор
+-- не читал tasks. Устаревшие ключи удаляет TaskIdempotencyService, см. todo.idempotency.ttl
+create table if not exists task_idempotency_keys
+(
+    key         varchar(255) not null primary key,
+    fingerprint bigint       not null,
+    task_id     uuid,
+    response    text,
+    created_at  timestamptz  not null default now()
+);
+
+create index if not exists task_idempotency_keys_created_at_idx on task_idempotency_keys (created_at);
@@ -0,0 +1,21 @@
+-- Первичный ключ секционированной tasks - (id, archived), и сам по себе id уникален только внутри секции.
+-- Приложение генерирует id само (UUIDv7), а поиск по id, merge Hibernate и лента изменений считают его
+-- уникальным во всей таблице. Новые задачи всегда попадают в tasks_hot, поэтому вставка в неё
+-- проверяет, что такого id нет в архиве. При возврате задачи из архива (перенос между секциями)
+-- строка в tasks_archive уже удалена той же командой и проверке не мешает.
+-- Вставка одновременно с переносом в архив задачи с тем же id проверкой не закрыта:
+-- это исключает генерация id на сервере, а проверка ловит импорт и ручные вставки
+create or replace function tasks_hot_check_archived_id() returns trigger as
+$$
+begin
+    if exists (select 1 from tasks_archive where id = new.id) then
+        raise exception 'Задача с id % уже есть в архиве', new.id
+            using errcode = 'unique_violation', constraint = 'tasks_pkey';
+    end if;
+    return new;
+end;
+$$ language plpgsql;
+
+create or replace trigger tasks_hot_archived_id
+    before insert on tasks_hot
+    for each row execute function tasks_hot_check_archived_id();
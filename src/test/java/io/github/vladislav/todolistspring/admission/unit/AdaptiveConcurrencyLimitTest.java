@@ -0,0 +1,82 @@
+package io.github.vladislav.todolistspring.admission.unit;
+
+import io.github.vladislav.todolistspring.admission.AdaptiveConcurrencyLimit;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToLongFunction;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdaptiveConcurrencyLimitTest {
+
+    @Test
+    void tryAcquireTest_rejectedOverLimit() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10);
+
+        assertTrue(limit.tryAcquire());
+        assertTrue(limit.tryAcquire());
+        assertFalse(limit.tryAcquire());
+
+        limit.release(TimeUnit.MILLISECONDS.toNanos(1));
+        assertTrue(limit.tryAcquire());
+    }
+
+    @Test
+    void releaseTest_limitGrowsWhileLatencyStable() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200);
+
+        for (int i = 0; i < 50; i++) {
+            saturate(limit, TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertEquals(200, limit.limit());
+    }
+
+    @Test
+    void releaseTest_limitBoundedByBackendCapacity() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200);
+
+        // БД обслуживает 30 запросов одновременно, остальные ждут в очереди
+        for (int i = 0; i < 100; i++) {
+            saturate(limit, n -> (long) (TimeUnit.MILLISECONDS.toNanos(5) * Math.max(1.0, n / 30.0)));
+        }
+
+        assertTrue(limit.limit() < 100);
+    }
+
+    @Test
+    void releaseTest_limitNotRaisedWhenUnderused() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(20, 4, 200);
+
+        for (int i = 0; i < 1000; i++) {
+            limit.tryAcquire();
+            limit.release(TimeUnit.MILLISECONDS.toNanos(5));
+        }
+
+        assertEquals(20, limit.limit());
+    }
+
+    /**
+     * Занимает все места и освобождает их с заданным временем ответа
+     */
+    private void saturate(AdaptiveConcurrencyLimit limit, long rttNanos) {
+        saturate(limit, n -> rttNanos);
+    }
+
+    /**
+     * @param rtt - время ответа в зависимости от числа одновременных запросов
+     */
+    private void saturate(AdaptiveConcurrencyLimit limit, IntToLongFunction rtt) {
+        int acquired = 0;
+        while (limit.tryAcquire()) {
+            acquired++;
+        }
+        long rttNanos = rtt.applyAsLong(acquired);
+        for (int i = 0; i < acquired; i++) {
+            limit.release(rttNanos);
+        }
+    }
+}
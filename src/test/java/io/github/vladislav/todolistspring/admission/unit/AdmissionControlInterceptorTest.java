@@ -0,0 +1,103 @@
+package io.github.vladislav.todolistspring.admission.unit;
+
+import io.github.vladislav.todolistspring.admission.AdmissionControlInterceptor;
+import io.github.vladislav.todolistspring.admission.RequestDeadline;
+import io.github.vladislav.todolistspring.config.AdmissionProperties;
+import io.github.vladislav.todolistspring.exception.AdmissionRejectedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class AdmissionControlInterceptorTest {
+
+    private final MockHttpServletResponse response = new MockHttpServletResponse();
+
+    private SimpleMeterRegistry registry;
+    private AdmissionControlInterceptor interceptor;
+    private HandlerMethod getTask;
+    private HandlerMethod subscribe;
+
+    @BeforeEach
+    void setUp() throws NoSuchMethodException {
+        registry = new SimpleMeterRegistry();
+        interceptor = new AdmissionControlInterceptor(new AdmissionProperties(true, 1, 1, 1,
+                Duration.ofSeconds(10), Map.of("getTask", Duration.ofSeconds(2)), Set.of("subscribe")), registry);
+        Endpoints endpoints = new Endpoints();
+        getTask = new HandlerMethod(endpoints, Endpoints.class.getMethod("getTask"));
+        subscribe = new HandlerMethod(endpoints, Endpoints.class.getMethod("subscribe"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+    }
+
+    @Test
+    void preHandleTest_rejectedOverLimitUntilCompletion() {
+        MockHttpServletRequest first = request();
+        interceptor.preHandle(first, response, getTask);
+
+        assertThrows(AdmissionRejectedException.class, () -> interceptor.preHandle(request(), response, getTask));
+        assertEquals(1.0, registry.get("todo.admission.rejected").tag("endpoint", "getTask").counter().count());
+
+        interceptor.afterCompletion(first, response, getTask, null);
+        assertDoesNotThrow(() -> interceptor.preHandle(request(), response, getTask));
+    }
+
+    @Test
+    void preHandleTest_headerShortensDeadline() {
+        MockHttpServletRequest request = request();
+        request.addHeader(AdmissionControlInterceptor.TIMEOUT_HEADER, "100");
+
+        interceptor.preHandle(request, response, getTask);
+
+        assertTrue(RequestDeadline.remainingNanos() <= TimeUnit.MILLISECONDS.toNanos(100));
+        interceptor.afterCompletion(request, response, getTask, null);
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    @Test
+    void preHandleTest_headerCannotExtendEndpointDeadline() {
+        MockHttpServletRequest request = request();
+        request.addHeader(AdmissionControlInterceptor.TIMEOUT_HEADER, "60000");
+
+        interceptor.preHandle(request, response, getTask);
+
+        assertTrue(RequestDeadline.remainingNanos() <= TimeUnit.SECONDS.toNanos(2));
+    }
+
+    @Test
+    void preHandleTest_excludedEndpointNotLimited() {
+        interceptor.preHandle(request(), response, subscribe);
+
+        assertDoesNotThrow(() -> interceptor.preHandle(request(), response, subscribe));
+        assertFalse(RequestDeadline.isSet());
+    }
+
+    private MockHttpServletRequest request() {
+        return new MockHttpServletRequest("GET", "/v1/tasks/1");
+    }
+
+    public static class Endpoints {
+        public void getTask() {
+        }
+
+        public void subscribe() {
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.TodoListSpringApplication;
+import lombok.experimental.UtilityClass;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Поднимает контекст приложения без веб-слоя для бенчмарков, которым нужна БД.
+ * Бенчмарки очищают таблицу tasks, поэтому БД из application.properties не используется никогда:
+ * подключение задаётся явно переменными окружения BENCHMARK_DATASOURCE_URL/USERNAME/PASSWORD
+ * (их наследуют и exec-плагин, и форки JMH), а без них поднимается отдельный Postgres в Testcontainers на время форка
+ */
+@UtilityClass
+public class BenchmarkContext {
+
+    private static final String URL = "BENCHMARK_DATASOURCE_URL";
+
+    private PostgreSQLContainer postgres;
+
+    public ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(TodoListSpringApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .properties(properties)
+                .initializers(context -> context.getEnvironment().getPropertySources()
+                        .addFirst(new MapPropertySource("benchmarkDataSource", dataSource())))
+                .run();
+    }
+
+    /**
+     * То же, но с веб-сервером на случайном порту (см. local.server.port) для нагрузочных тестов по HTTP
+     */
+    public ConfigurableApplicationContext startServer(String... properties) {
+        return new SpringApplicationBuilder(TodoListSpringApplication.class)
+                .web(WebApplicationType.SERVLET)
+                .properties("server.port=0", "spring.jpa.show-sql=false", "logging.level.root=WARN")
+                .properties(properties)
+                .initializers(context -> context.getEnvironment().getPropertySources()
+                        .addFirst(new MapPropertySource("benchmarkDataSource", dataSource())))
+                .run();
+    }
+
+    /**
+     * Подключение с наивысшим приоритетом: его не перекроют ни application.properties, ни SPRING_DATASOURCE_*
+     */
+    private synchronized Map<String, Object> dataSource() {
+        String url = System.getenv(URL);
+        if (url != null) {
+            return Map.of(
+                    "spring.datasource.url", url,
+                    "spring.datasource.username", Objects.requireNonNullElse(System.getenv("BENCHMARK_DATASOURCE_USERNAME"), ""),
+                    "spring.datasource.password", Objects.requireNonNullElse(System.getenv("BENCHMARK_DATASOURCE_PASSWORD"), ""));
+        }
+        if (postgres == null) {
+            postgres = new PostgreSQLContainer("postgres:17-alpine");
+            postgres.start();
+        }
+        return Map.of(
+                "spring.datasource.url", postgres.getJdbcUrl(),
+                "spring.datasource.username", postgres.getUsername(),
+                "spring.datasource.password", postgres.getPassword());
+    }
+}
@@ -0,0 +1,61 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.PageResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Сериализация страницы списка задач в JSON при разных размерах страницы. БД не нужна:
+ * mvn -Pbenchmark verify -Djmh.include=PageSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PageSerializationBenchmark {
+
+    @Param({"20", "100", "1000"})
+    private int pageSize;
+
+    private ObjectWriter writer;
+    private PageResponseDto<TaskDto> page;
+
+    @Setup
+    public void setUp() {
+        writer = JsonMapper.builder().build().writer();
+        List<TaskDto> content = IntStream.range(0, pageSize)
+                .mapToObj(i -> TaskDto.builder()
+                        .title("Task " + i)
+                        .description("Описание задачи " + i)
+                        .dueDate(LocalDate.now().plusDays(i % 30))
+                        .status(TaskStatus.values()[i % TaskStatus.values().length])
+                        .build())
+                .toList();
+        page = new PageResponseDto<>(content, 0, pageSize, 100_000L, 100_000 / pageSize, true);
+    }
+
+    @Benchmark
+    public byte[] serialize() {
+        return writer.writeValueAsBytes(page);
+    }
+}
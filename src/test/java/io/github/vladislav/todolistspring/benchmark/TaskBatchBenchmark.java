@@ -0,0 +1,94 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import io.github.vladislav.todolistspring.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Сравнение скорости вставки (строк/сек) поштучного createTask и пакетного createTasks,
+ * с настройками по умолчанию и с профилем prod (reWriteBatchedInserts, autocommit в пуле и т.д.).
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskBatchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TaskBatchBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskBatchService taskBatchService;
+    private TaskRepository taskRepository;
+    private List<TaskDto> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.profiles.active=" + profile);
+        taskService = context.getBean(TaskService.class);
+        taskBatchService = context.getBean(TaskBatchService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        tasks = IntStream.range(0, ROWS)
+                .mapToObj(i -> TaskDto.builder()
+                        .title("Task " + i)
+                        .description("description")
+                        .dueDate(LocalDate.now().plusDays(i % 30))
+                        .status(TaskStatus.TODO)
+                        .build())
+                .toList();
+    }
+
+    @TearDown(Level.Iteration)
+    public void cleanUp() {
+        taskRepository.deleteAllInBatch();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public void singleCreate(Blackhole bh) {
+        for (TaskDto task : tasks) {
+            bh.consume(taskService.createTask(task));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskBatchResponseDto batchCreate() {
+        return taskBatchService.createTasks(tasks);
+    }
+}
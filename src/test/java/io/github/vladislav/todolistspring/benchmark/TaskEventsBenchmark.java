@@ -0,0 +1,132 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
+
+/**
+ * Нагрузочный тест GET /v1/tasks/events: connections подписчиков на одном экземпляре,
+ * время операции - от создания задачи до получения события всеми подписчиками.
+ * Во время замера видно и число потоков сервера: подключения асинхронные и потоков Tomcat не держат.
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskEventsBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(value = 1, jvmArgs = {"-Xmx2g"})
+public class TaskEventsBenchmark {
+
+    private static final int CONNECT_BATCH = 500;
+    private static final long DELIVERY_TIMEOUT_NANOS = TimeUnit.SECONDS.toNanos(30);
+
+    @Param({"1000", "5000"})
+    private int connections;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskEventBroadcaster broadcaster;
+    private HttpClient client;
+    private ExecutorService readers;
+    private final LongAdder delivered = new LongAdder();
+    private TaskDto taskDto;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        context = BenchmarkContext.startServer(
+                "server.tomcat.max-connections=" + (connections + 1000),
+                "todo.events.max-subscribers=" + (connections + 1000));
+        context.getBean(TaskRepository.class).deleteAllInBatch();
+        taskService = context.getBean(TaskService.class);
+        broadcaster = context.getBean(TaskEventBroadcaster.class);
+        taskDto = TaskDto.builder()
+                .title("Task")
+                .dueDate(LocalDate.now().plusDays(1))
+                .status(TaskStatus.TODO)
+                .build();
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        readers = Executors.newVirtualThreadPerTaskExecutor();
+        client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .executor(readers)
+                .build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/v1/tasks/events"))
+                .header("Accept", "text/event-stream")
+                .GET()
+                .build();
+
+        // Подключаемся порциями, чтобы не переполнить очередь accept у Tomcat
+        for (int from = 0; from < connections; from += CONNECT_BATCH) {
+            List<CompletableFuture<HttpResponse<Stream<String>>>> batch = new ArrayList<>();
+            for (int i = from; i < Math.min(from + CONNECT_BATCH, connections); i++) {
+                batch.add(client.sendAsync(request, HttpResponse.BodyHandlers.ofLines()));
+            }
+            for (CompletableFuture<HttpResponse<Stream<String>>> response : batch) {
+                Stream<String> lines = response.get(30, TimeUnit.SECONDS).body();
+                readers.execute(() -> lines
+                        .filter(line -> line.startsWith("event:"))
+                        .forEach(line -> delivered.increment()));
+            }
+        }
+        while (broadcaster.subscriberCount() < connections) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.getBean(TaskRepository.class).deleteAllInBatch();
+        context.close();
+        client.shutdownNow();
+        readers.shutdownNow();
+    }
+
+    @Benchmark
+    public long fanOut() throws TimeoutException {
+        long target = delivered.sum() + connections;
+        taskService.createTask(taskDto);
+        long deadline = System.nanoTime() + DELIVERY_TIMEOUT_NANOS;
+        long current;
+        while ((current = delivered.sum()) < target) {
+            if (System.nanoTime() > deadline) {
+                throw new TimeoutException("Доставлено " + (current - target + connections) + " из " + connections);
+            }
+            Thread.onSpinWait();
+        }
+        return current;
+    }
+}
@@ -0,0 +1,67 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.entity.id.UuidV7;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Task.equals/hashCode в HashSet: построение множества и поиск задачи по нему. БД не нужна:
+ * mvn -Pbenchmark verify -Djmh.include=TaskHashBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskHashBenchmark {
+
+    @Param({"1000", "10000", "100000"})
+    private int size;
+
+    private List<Task> tasks;
+    private Set<Task> set;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        tasks = IntStream.range(0, size)
+                .mapToObj(i -> Task.builder()
+                        .id(UuidV7.next())
+                        .title("Task " + i)
+                        .dueDate(LocalDate.now())
+                        .status(TaskStatus.TODO)
+                        .build())
+                .toList();
+        set = new HashSet<>(tasks);
+    }
+
+    @Benchmark
+    public Set<Task> build() {
+        return new HashSet<>(tasks);
+    }
+
+    @Benchmark
+    public boolean contains() {
+        next = next + 1 == size ? 0 : next + 1;
+        return set.contains(tasks.get(next));
+    }
+}
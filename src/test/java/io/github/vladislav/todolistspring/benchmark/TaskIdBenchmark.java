@@ -0,0 +1,78 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Скорость вставки (строк/сек) при UUIDv7 и случайных UUIDv4.
+ * Таблица не очищается между итерациями, чтобы индекс рос и проявлялась фрагментация.
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskIdBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 10, time = 10)
+@Fork(1)
+public class TaskIdBenchmark {
+
+    private static final int ROWS = 1000;
+
+    @Param({"uuid_v7", "random"})
+    private String strategy;
+
+    private ConfigurableApplicationContext context;
+    private TaskBatchService taskBatchService;
+    private TaskRepository taskRepository;
+    private List<TaskDto> tasks;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start("spring.jpa.properties.todo.id.strategy=" + strategy);
+        taskBatchService = context.getBean(TaskBatchService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        taskRepository.deleteAllInBatch();
+        tasks = IntStream.range(0, ROWS)
+                .mapToObj(i -> TaskDto.builder()
+                        .title("Task " + i)
+                        .dueDate(LocalDate.now().plusDays(i % 30))
+                        .status(TaskStatus.TODO)
+                        .build())
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(ROWS)
+    public TaskBatchResponseDto insert() {
+        return taskBatchService.createTasks(tasks);
+    }
+}
@@ -0,0 +1,104 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.converter.TaskColumnsCodec;
+import io.github.vladislav.todolistspring.dto.PageResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskColumnsDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.ObjectWriter;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Размер и время кодирования страницы из 1000 задач: JSON {@link PageResponseDto}, JSON по колонкам
+ * и двоичный формат по колонкам ({@link TaskColumnsCodec}), без сжатия и с gzip.
+ * Размер в байтах печатается при подготовке каждого варианта. БД не нужна:
+ * mvn -Pbenchmark verify -Djmh.include=TaskListEncodingBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskListEncodingBenchmark {
+
+    private static final int TASKS = 1000;
+
+    @Param({"json", "json_columns", "binary_columns"})
+    private String format;
+
+    @Param({"none", "gzip"})
+    private String compression;
+
+    private ObjectWriter writer;
+    private PageResponseDto<TaskDto> page;
+    private TaskColumnsDto columns;
+
+    @Setup
+    public void setUp() throws IOException {
+        writer = JsonMapper.builder().build().writer();
+        List<TaskDto> content = IntStream.range(0, TASKS)
+                .mapToObj(i -> TaskDto.builder()
+                        .title("Task " + i)
+                        .description("Описание задачи " + i)
+                        .dueDate(LocalDate.now().plusDays(i % 30))
+                        .status(TaskStatus.values()[i % TaskStatus.values().length])
+                        .build())
+                .toList();
+        page = new PageResponseDto<>(content, 0, TASKS, 100_000L, 100_000 / TASKS, true);
+        columns = TaskColumnsDto.builder()
+                .page(0)
+                .size(TASKS)
+                .totalElements(100_000L)
+                .totalPages(100_000 / TASKS)
+                .hasNext(true)
+                .title(content.stream().map(TaskDto::title).toList())
+                .description(content.stream().map(TaskDto::description).toList())
+                .dueDate(content.stream().map(TaskDto::dueDate).toList())
+                .status(content.stream().map(TaskDto::status).toList())
+                .build();
+        System.out.printf("%n%s/%s: %d байт на %d задач%n", format, compression, encode().length, TASKS);
+    }
+
+    @Benchmark
+    public byte[] encode() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(64 * 1024);
+        if ("gzip".equals(compression)) {
+            try (OutputStream out = new GZIPOutputStream(bytes, 8192)) {
+                write(out);
+            }
+        } else {
+            write(bytes);
+        }
+        return bytes.toByteArray();
+    }
+
+    private void write(OutputStream out) throws IOException {
+        switch (format) {
+            case "json" -> writer.writeValue(out, page);
+            case "json_columns" -> writer.writeValue(out, columns);
+            case "binary_columns" -> TaskColumnsCodec.encode(columns, out);
+            default -> throw new IllegalArgumentException(format);
+        }
+    }
+}
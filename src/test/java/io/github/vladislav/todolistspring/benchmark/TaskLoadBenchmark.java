@@ -0,0 +1,104 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.LocalDate;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Нагрузочный тест GET /v1/tasks: 256 клиентов при пуле Tomcat на платформенных потоках
+ * и при виртуальных потоках с ограничителем обращений к БД и без него,
+ * с настройками по умолчанию и с профилем prod.
+ * Throughput - запросов/сек, SampleTime - распределение задержек (p0.99 в отчёте JMH).
+ * Ответы 503 от ограничителя тоже считаются и видны как быстрые запросы в нижних перцентилях.
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskLoadBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode({Mode.Throughput, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Threads(256)
+@Fork(1)
+public class TaskLoadBenchmark {
+
+    private static final int ROWS = 10_000;
+
+    /**
+     * platform - пул Tomcat по умолчанию, virtual - виртуальные потоки без ограничителя,
+     * virtual_gate - виртуальные потоки с todo.jdbc.gate.enabled
+     */
+    @Param({"platform", "virtual", "virtual_gate"})
+    private String executor;
+
+    @Param({"default", "prod"})
+    private String profile;
+
+    private ConfigurableApplicationContext context;
+    private TaskRepository taskRepository;
+    private HttpClient client;
+    private HttpRequest request;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.startServer(
+                "spring.profiles.active=" + profile,
+                "spring.threads.virtual.enabled=" + !executor.equals("platform"),
+                "todo.jdbc.gate.enabled=" + executor.equals("virtual_gate"));
+        taskRepository = context.getBean(TaskRepository.class);
+        taskRepository.deleteAllInBatch();
+        context.getBean(TaskBatchService.class).createTasks(IntStream.range(0, ROWS)
+                .mapToObj(i -> TaskDto.builder()
+                        .title("Task " + i)
+                        .dueDate(LocalDate.now().plusDays(i % 365))
+                        .status(TaskStatus.values()[i % TaskStatus.values().length])
+                        .build())
+                .toList());
+
+        String port = context.getEnvironment().getProperty("local.server.port");
+        client = HttpClient.newBuilder()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .build();
+        request = HttpRequest.newBuilder(URI.create(
+                        "http://localhost:" + port + "/v1/tasks?status=TODO&size=20&sort=dueDate,asc"))
+                .GET()
+                .build();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskRepository.deleteAllInBatch();
+        client.close();
+        context.close();
+    }
+
+    @Benchmark
+    public int listTasks() throws IOException, InterruptedException {
+        return client.send(request, HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.entity.id.UuidV7;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.mapper.TaskIdMapper;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.mapper.TaskMapperImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Среднее время одного вызова сгенерированного MapStruct маппера. БД не нужна:
+ * mvn -Pbenchmark verify -Djmh.include=TaskMapperBenchmark
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class TaskMapperBenchmark {
+
+    private final TaskMapper taskMapper = new TaskMapperImpl(new TaskIdMapper("uuid_v7"));
+
+    private Task task;
+    private TaskDto taskDto;
+    private TaskPatchDto patch;
+
+    @Setup
+    public void setUp() {
+        task = Task.builder()
+                .id(UuidV7.next())
+                .title("Task title")
+                .description("Task description")
+                .dueDate(LocalDate.now().plusDays(7))
+                .status(TaskStatus.IN_PROGRESS)
+                .build();
+        taskDto = taskMapper.toDto(task);
+        patch = TaskPatchDto.builder()
+                .title("Updated title")
+                .dueDate(LocalDate.now().plusDays(14))
+                .build();
+    }
+
+    @Benchmark
+    public TaskDto toDto() {
+        return taskMapper.toDto(task);
+    }
+
+    @Benchmark
+    public Task toEntity() {
+        return taskMapper.toEntity(taskDto);
+    }
+
+    @Benchmark
+    public Task updateTaskFromDto() {
+        taskMapper.updateTaskFromDto(patch, task);
+        return task;
+    }
+}
@@ -0,0 +1,111 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Window;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Задержка полнотекстового поиска на 1M задач: первая страница, десятая страница по курсору
+ * и поиск вместе с фильтром по статусу. Запросы разной селективности: редкое слово
+ * (~0.1% строк), частое (~10%) и сочетание двух слов.
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskSearchBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 10)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TaskSearchBenchmark {
+
+    private static final int ROWS = 1_000_000;
+    private static final int PAGE = 20;
+    private static final TaskFilterDto NO_FILTER = TaskFilterDto.builder().build();
+    private static final TaskFilterDto TODO = TaskFilterDto.builder().status(TaskStatus.TODO).build();
+
+    @Param({"счёт", "отчёт", "отчёт клиент"})
+    private String query;
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskSearchCursor tenthPage;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        taskService = context.getBean(TaskService.class);
+        JdbcTemplate jdbcTemplate = context.getBean(JdbcTemplate.class);
+        if (jdbcTemplate.queryForObject("select count(*) from tasks", Long.class) != ROWS) {
+            context.getBean(TaskRepository.class).deleteAllInBatch();
+            // Частота слов задаётся номером строки: "отчёт" в каждой 10-й, "клиент" в каждой 7-й,
+            // "счёт" в каждой 1000-й, остальное - общий словарь
+            jdbcTemplate.execute("""
+                    insert into tasks (id, title, description, due_date, status)
+                    select gen_random_uuid(),
+                           case when g % 10 = 0 then 'Подготовить отчёт ' else 'Задача ' end || g,
+                           concat_ws(' ',
+                                     (array['позвонить', 'написать', 'проверить', 'обсудить', 'согласовать'])[1 + g % 5],
+                                     case when g % 7 = 0 then 'клиент' end,
+                                     case when g % 1000 = 0 then 'счёт' end,
+                                     (array['срочно', 'после обеда', 'на неделе', 'в пятницу'])[1 + g % 4]),
+                           date '2020-01-01' + (g % 2000),
+                           case when g % 10 < 8 then 'DONE' when g % 10 = 8 then 'TODO' else 'IN_PROGRESS' end
+                    from generate_series(1, %d) g
+                    """.formatted(ROWS));
+            jdbcTemplate.execute("vacuum analyze tasks");
+        }
+
+        Window<TaskSearchHitDto> page = null;
+        TaskSearchCursor after = null;
+        for (int i = 0; i < 9; i++) {
+            page = taskService.searchTasks(NO_FILTER, query, after, PAGE);
+            if (!page.hasNext()) {
+                break;
+            }
+            TaskSearchHitDto last = page.getContent().getLast();
+            after = new TaskSearchCursor(query.hashCode(), last.rank(), last.id());
+        }
+        tenthPage = after;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Window<TaskSearchHitDto> firstPage() {
+        return taskService.searchTasks(NO_FILTER, query, null, PAGE);
+    }
+
+    @Benchmark
+    public Window<TaskSearchHitDto> tenthPage() {
+        return taskService.searchTasks(NO_FILTER, query, tenthPage, PAGE);
+    }
+
+    @Benchmark
+    public Window<TaskSearchHitDto> firstPageWithStatus() {
+        return taskService.searchTasks(TODO, query, null, PAGE);
+    }
+}
@@ -0,0 +1,115 @@
+package io.github.vladislav.todolistspring.benchmark;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResultDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskVersionDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.pagination.TaskCursorCodec;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import io.github.vladislav.todolistspring.service.TaskService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+/**
+ * Основные операции TaskService целиком, вместе с Hibernate и БД.
+ * Требует Docker или BENCHMARK_DATASOURCE_URL, см. BenchmarkContext: mvn -Pbenchmark verify -Djmh.include=TaskServiceBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class TaskServiceBenchmark {
+
+    private static final int ROWS = 10_000;
+    private static final TaskFilterDto TODO = TaskFilterDto.builder().status(TaskStatus.TODO).build();
+
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private TaskRepository taskRepository;
+    private List<UUID> ids;
+    private int next;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = BenchmarkContext.start();
+        taskService = context.getBean(TaskService.class);
+        taskRepository = context.getBean(TaskRepository.class);
+        taskRepository.deleteAllInBatch();
+        ids = context.getBean(TaskBatchService.class).createTasks(IntStream.range(0, ROWS)
+                        .mapToObj(i -> TaskDto.builder()
+                                .title("Task " + i)
+                                .dueDate(LocalDate.now().plusDays(i % 365))
+                                .status(TaskStatus.values()[i % TaskStatus.values().length])
+                                .build())
+                        .toList())
+                .items().stream()
+                .map(TaskBatchResultDto::id)
+                .toList();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        taskRepository.deleteAllInBatch();
+        context.close();
+    }
+
+    @Benchmark
+    public Task getTaskById() {
+        return taskService.getTaskById(nextId());
+    }
+
+    /**
+     * После прогрева все задачи в кэше, поэтому это стоимость попадания в кэш
+     */
+    @Benchmark
+    public TaskVersionDto getTaskVersionCached() {
+        return taskService.getTaskVersion(nextId());
+    }
+
+    @Benchmark
+    public Page<Task> getAllTasksFirstPage() {
+        return taskService.getAllTasks(TODO, PageRequest.of(0, 20, Sort.by("dueDate")));
+    }
+
+    @Benchmark
+    public Slice<TaskDto> getTaskDtosFirstPage() {
+        return taskService.getTaskDtos(TODO, PageRequest.of(0, 20, Sort.by("dueDate")));
+    }
+
+    @Benchmark
+    public Window<Task> scrollTasksFirstPage() {
+        return taskService.scrollTasks(TODO, TaskCursorCodec.first("dueDate", Sort.Direction.ASC), 20);
+    }
+
+    private UUID nextId() {
+        next = next + 1 == ids.size() ? 0 : next + 1;
+        return ids.get(next);
+    }
+}
@@ -0,0 +1,120 @@
+package io.github.vladislav.todolistspring.config.unit;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.github.vladislav.todolistspring.config.PerformanceSelfCheck;
+import io.github.vladislav.todolistspring.config.SelfCheckProperties;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.generator.Generator;
+import org.hibernate.metamodel.spi.MappingMetamodelImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class PerformanceSelfCheckTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private SessionFactoryImplementor sessionFactory;
+
+    @Mock
+    private MappingMetamodelImplementor mappingMetamodel;
+
+    @Mock
+    private SessionFactoryOptions options;
+
+    private MockEnvironment environment;
+
+    private final HikariDataSource dataSource = new HikariDataSource();
+
+    @BeforeEach
+    void setUp() {
+        when(entityManagerFactory.unwrap(SessionFactoryImplementor.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getSessionFactoryOptions()).thenReturn(options);
+        lenient().when(sessionFactory.getMappingMetamodel()).thenReturn(mappingMetamodel);
+        lenient().when(options.getJdbcBatchSize()).thenReturn(50);
+        lenient().when(options.isOrderInsertsEnabled()).thenReturn(true);
+        lenient().when(options.doesConnectionProviderDisableAutoCommit()).thenReturn(true);
+
+        environment = new MockEnvironment().withProperty("spring.jpa.open-in-view", "false");
+        dataSource.setMaximumPoolSize(20);
+        dataSource.setMinimumIdle(20);
+        dataSource.setAutoCommit(false);
+        dataSource.addDataSourceProperty("reWriteBatchedInserts", "true");
+    }
+
+    @Test
+    void checkTest_prodSettingsPass() {
+        assertEquals(List.of(), selfCheck(false).check());
+    }
+
+    @Test
+    void checkTest_openInViewByDefault() {
+        environment = new MockEnvironment();
+
+        List<String> warnings = selfCheck(false).check();
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.getFirst().contains("open-in-view"));
+    }
+
+    @Test
+    void checkTest_identityIdDisablesBatching() {
+        EntityPersister persister = mock(EntityPersister.class);
+        Generator generator = mock(Generator.class);
+        when(generator.generatedOnExecution()).thenReturn(true);
+        when(persister.getGenerator()).thenReturn(generator);
+        when(persister.getEntityName()).thenReturn("Task");
+        doAnswer(inv -> {
+            inv.<Consumer<EntityPersister>>getArgument(0).accept(persister);
+            return null;
+        }).when(mappingMetamodel).forEachEntityDescriptor(any());
+
+        List<String> warnings = selfCheck(false).check();
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.getFirst().contains("Task"));
+    }
+
+    @Test
+    void checkTest_autoCommitContradiction() {
+        dataSource.setAutoCommit(true);
+
+        List<String> warnings = selfCheck(false).check();
+
+        assertEquals(1, warnings.size());
+        assertTrue(warnings.getFirst().contains("auto-commit"));
+    }
+
+    @Test
+    void onReadyTest_failOnWarning() {
+        environment.setProperty("spring.jpa.show-sql", "true");
+
+        assertThrows(IllegalStateException.class, () -> selfCheck(true).onReady());
+    }
+
+    private PerformanceSelfCheck selfCheck(boolean failOnWarning) {
+        return new PerformanceSelfCheck(new SelfCheckProperties(true, failOnWarning),
+                environment, entityManagerFactory, dataSource);
+    }
+}
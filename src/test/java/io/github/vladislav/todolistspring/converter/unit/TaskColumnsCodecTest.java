@@ -0,0 +1,76 @@
+package io.github.vladislav.todolistspring.converter.unit;
+
+import io.github.vladislav.todolistspring.converter.TaskColumnsCodec;
+import io.github.vladislav.todolistspring.converter.TaskColumnsHttpMessageConverter;
+import io.github.vladislav.todolistspring.dto.tasks.TaskColumnsDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.MockHttpOutputMessage;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskColumnsCodecTest {
+
+    private final TaskColumnsDto columns = TaskColumnsDto.builder()
+            .page(3)
+            .size(2)
+            .totalElements(1_000_000L)
+            .totalPages(500_000)
+            .hasNext(true)
+            .title(List.of("Задача", "Task 2"))
+            .description(Arrays.asList(null, "Описание"))
+            .dueDate(Arrays.asList(LocalDate.of(2026, 10, 18), null))
+            .status(Arrays.asList(TaskStatus.DONE, null))
+            .build();
+
+    @Test
+    void decodeTest_roundTrip() throws IOException {
+        assertEquals(columns, decode(encode(columns)));
+    }
+
+    @Test
+    void decodeTest_unknownTotal() throws IOException {
+        TaskColumnsDto empty = new TaskColumnsDto(0, 20, null, null, false, List.of(), List.of(), List.of(), List.of());
+
+        assertEquals(empty, decode(encode(empty)));
+    }
+
+    @Test
+    void decodeTest_unknownVersion() {
+        assertThrows(IOException.class, () -> decode(new byte[]{2}));
+    }
+
+    @Test
+    void writeTest_converterUsesVendorMediaType() throws IOException {
+        TaskColumnsHttpMessageConverter converter = new TaskColumnsHttpMessageConverter();
+        MockHttpOutputMessage message = new MockHttpOutputMessage();
+
+        assertTrue(converter.canWrite(TaskColumnsDto.class, TaskColumnsCodec.MEDIA_TYPE));
+        assertFalse(converter.canWrite(TaskColumnsDto.class, MediaType.APPLICATION_JSON));
+        converter.write(columns, TaskColumnsCodec.MEDIA_TYPE, message);
+
+        assertEquals(TaskColumnsCodec.MEDIA_TYPE, message.getHeaders().getContentType());
+        assertEquals(columns, decode(message.getBodyAsBytes()));
+    }
+
+    private byte[] encode(TaskColumnsDto dto) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        TaskColumnsCodec.encode(dto, out);
+        return out.toByteArray();
+    }
+
+    private TaskColumnsDto decode(byte[] bytes) throws IOException {
+        return TaskColumnsCodec.decode(new ByteArrayInputStream(bytes));
+    }
+}
@@ -0,0 +1,94 @@
+package io.github.vladislav.todolistspring.datasource.unit;
+
+import io.github.vladislav.todolistspring.config.JdbcGateProperties;
+import io.github.vladislav.todolistspring.datasource.JdbcConcurrencyGate;
+import io.github.vladislav.todolistspring.exception.DatabaseBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class JdbcConcurrencyGateTest {
+
+    @Mock
+    private DataSource target;
+
+    private SimpleMeterRegistry registry;
+    private JdbcConcurrencyGate gate;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        registry = new SimpleMeterRegistry();
+        gate = new JdbcConcurrencyGate(target, new JdbcGateProperties(true, 1, Duration.ofMillis(50)), registry);
+        when(target.getConnection()).thenAnswer(inv -> mock(Connection.class));
+    }
+
+    @Test
+    void getConnectionTest_permitHeldUntilClose() throws SQLException {
+        Connection connection = gate.getConnection();
+        assertEquals(0.0, available());
+
+        connection.close();
+        connection.close();
+
+        assertEquals(1.0, available());
+    }
+
+    @Test
+    void getConnectionTest_nestedConnectionDoesNotTakeSecondPermit() throws SQLException {
+        try (Connection outer = gate.getConnection()) {
+            try (Connection inner = gate.getConnection()) {
+                assertEquals(0.0, available());
+            }
+            assertEquals(0.0, available());
+        }
+        assertEquals(1.0, available());
+    }
+
+    @Test
+    void getConnectionTest_rejectedAfterTimeout() throws Exception {
+        Connection held = CompletableFuture.supplyAsync(this::connection).get();
+
+        assertThrows(DatabaseBusyException.class, () -> gate.getConnection());
+        assertEquals(1.0, registry.get("todo.jdbc.gate.rejected").counter().count());
+
+        // Соединение закрывает не тот поток, который его взял
+        held.close();
+        gate.getConnection().close();
+        assertEquals(1.0, available());
+    }
+
+    @Test
+    void getConnectionTest_permitReleasedWhenPoolFails() throws SQLException {
+        when(target.getConnection()).thenThrow(new SQLException("pool timeout"));
+
+        assertThrows(SQLException.class, () -> gate.getConnection());
+        assertEquals(1.0, available());
+    }
+
+    private Connection connection() {
+        try {
+            return gate.getConnection();
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private double available() {
+        return registry.get("todo.jdbc.gate.available").gauge().value();
+    }
+}
@@ -0,0 +1,117 @@
+package io.github.vladislav.todolistspring.datasource.unit;
+
+import io.github.vladislav.todolistspring.datasource.ReadReplicaDataSource;
+import io.github.vladislav.todolistspring.datasource.ReadYourWrites;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ReadReplicaDataSourceTest {
+
+    @Mock
+    private DataSource primary;
+
+    @Mock
+    private DataSource replica1;
+
+    @Mock
+    private DataSource replica2;
+
+    private final Connection primaryConnection = mock(Connection.class);
+    private final Connection replica1Connection = mock(Connection.class);
+    private final Connection replica2Connection = mock(Connection.class);
+
+    private ReadReplicaDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        lenient().when(primary.getConnection()).thenReturn(primaryConnection);
+        lenient().when(replica1.getConnection()).thenReturn(replica1Connection);
+        lenient().when(replica2.getConnection()).thenReturn(replica2Connection);
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica1", replica1);
+        replicas.put("replica2", replica2);
+        dataSource = new ReadReplicaDataSource(primary, replicas, Duration.ofSeconds(10), new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void getConnectionTest_roundRobin() throws SQLException {
+        assertSame(replica1Connection, dataSource.getConnection());
+        assertSame(replica2Connection, dataSource.getConnection());
+        assertSame(replica1Connection, dataSource.getConnection());
+    }
+
+    @Test
+    void getConnectionTest_failedReplicaSkipped() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(replica2Connection, dataSource.getConnection());
+        assertSame(replica2Connection, dataSource.getConnection());
+        assertEquals(1, dataSource.healthyCount());
+    }
+
+    @Test
+    void getConnectionTest_fallbackToPrimary() throws SQLException {
+        when(replica1.getConnection()).thenThrow(new SQLException("connection refused"));
+        when(replica2.getConnection()).thenThrow(new SQLException("connection refused"));
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        assertEquals(0, dataSource.healthyCount());
+    }
+
+    @Test
+    void getConnectionTest_readYourWritesUsesPrimary() throws SQLException {
+        ReadYourWrites.activate();
+
+        assertSame(primaryConnection, dataSource.getConnection());
+        verify(replica1, never()).getConnection();
+    }
+
+    @Test
+    void checkHealthTest_laggingReplicaExcluded() throws SQLException {
+        lagOf(replica1Connection, 60);
+        lagOf(replica2Connection, 0);
+
+        dataSource.checkHealth();
+
+        assertEquals(1, dataSource.healthyCount());
+        assertSame(replica2Connection, dataSource.getConnection());
+        assertSame(replica2Connection, dataSource.getConnection());
+    }
+
+    private void lagOf(Connection connection, double seconds) throws SQLException {
+        Statement statement = mock(Statement.class);
+        ResultSet rs = mock(ResultSet.class);
+        when(connection.createStatement()).thenReturn(statement);
+        when(statement.executeQuery(anyString())).thenReturn(rs);
+        when(rs.getDouble(1)).thenReturn(seconds);
+    }
+}
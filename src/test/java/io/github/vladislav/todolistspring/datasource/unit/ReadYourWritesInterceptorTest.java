@@ -0,0 +1,62 @@
+package io.github.vladislav.todolistspring.datasource.unit;
+
+import io.github.vladislav.todolistspring.datasource.ReadYourWrites;
+import io.github.vladislav.todolistspring.datasource.ReadYourWritesInterceptor;
+import jakarta.servlet.http.Cookie;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class ReadYourWritesInterceptorTest {
+
+    private final ReadYourWritesInterceptor interceptor = new ReadYourWritesInterceptor(Duration.ofSeconds(2));
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.clear();
+    }
+
+    @Test
+    void preHandleTest_writeSetsCookie() {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(new MockHttpServletRequest("PATCH", "/v1/tasks/update/1"), response, null);
+
+        assertNotNull(response.getCookie(ReadYourWritesInterceptor.COOKIE));
+        assertFalse(ReadYourWrites.isActive());
+    }
+
+    @Test
+    void preHandleTest_readInsideWindowUsesPrimary() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/tasks");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE,
+                String.valueOf(System.currentTimeMillis() + 1000)));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, null);
+
+        assertTrue(ReadYourWrites.isActive());
+        assertNull(response.getCookie(ReadYourWritesInterceptor.COOKIE));
+        interceptor.afterCompletion(request, response, null, null);
+        assertFalse(ReadYourWrites.isActive());
+    }
+
+    @Test
+    void preHandleTest_expiredWindowIgnored() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/tasks");
+        request.setCookies(new Cookie(ReadYourWritesInterceptor.COOKIE,
+                String.valueOf(System.currentTimeMillis() - 1)));
+
+        interceptor.preHandle(request, new MockHttpServletResponse(), null);
+
+        assertFalse(ReadYourWrites.isActive());
+    }
+}
@@ -0,0 +1,76 @@
+package io.github.vladislav.todolistspring.entity.unit;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.entity.id.UuidV7;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.mapper.TaskIdMapper;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.mapper.TaskMapperImpl;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskTest {
+
+    private final TaskMapper taskMapper = new TaskMapperImpl(new TaskIdMapper("uuid_v7"));
+
+    @Test
+    void toEntityTest_idAssignedBeforePersist() {
+        Task task = taskMapper.toEntity(TaskDto.builder()
+                .title("Task")
+                .dueDate(LocalDate.now())
+                .status(TaskStatus.TODO)
+                .build());
+        Set<Task> tasks = new HashSet<>(Set.of(task));
+
+        UUID id = task.getId();
+        task.setTitle("Renamed");
+
+        assertNotNull(id);
+        assertEquals(7, id.version());
+        assertTrue(tasks.contains(task));
+        assertEquals(id, task.getId());
+    }
+
+    @Test
+    void hashCodeTest_distinctTasksSpreadOverBuckets() {
+        Set<Integer> hashes = new HashSet<>();
+        for (int i = 0; i < 1000; i++) {
+            hashes.add(Task.builder().id(UuidV7.next()).title("Task " + i).build().hashCode());
+        }
+
+        assertEquals(1000, hashes.size());
+    }
+
+    @Test
+    void equalsTest_sameIdEqual() {
+        UUID id = UUID.randomUUID();
+        Task first = Task.builder().id(id).title("First").build();
+        Task second = Task.builder().id(id).title("Second").build();
+
+        assertEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+        assertNotEquals(first, Task.builder().id(UUID.randomUUID()).title("First").build());
+    }
+
+    @Test
+    void equalsTest_withoutIdEqualOnlyToItself() {
+        Task first = Task.builder().title("Task").build();
+        Task second = Task.builder().title("Task").build();
+
+        assertNull(first.getId());
+        assertEquals(first, first);
+        assertNotEquals(first, second);
+        assertEquals(first.hashCode(), second.hashCode());
+    }
+}
@@ -0,0 +1,58 @@
+package io.github.vladislav.todolistspring.entity.unit;
+
+import io.github.vladislav.todolistspring.entity.id.UuidV7;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class UuidV7Test {
+
+    @Test
+    void nextTest_versionAndVariant() {
+        UUID uuid = UuidV7.next();
+
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+    }
+
+    @Test
+    void nextTest_timestampIsCurrentTime() {
+        UUID previous = UuidV7.next();
+        long before = System.currentTimeMillis();
+        UUID uuid = UuidV7.next();
+        long after = System.currentTimeMillis();
+
+        // Генератор общий для JVM: после плотной генерации в других тестах время уже могло уйти вперёд,
+        // но не дальше чем на миллисекунду после предыдущего значения
+        assertTrue(UuidV7.timestamp(uuid) >= before);
+        assertTrue(UuidV7.timestamp(uuid) <= Math.max(after, UuidV7.timestamp(previous) + 1));
+    }
+
+    @Test
+    void nextTest_monotonicWithinSameMillisecond() {
+        long now = System.currentTimeMillis();
+        List<UUID> ids = IntStream.range(0, 10_000)
+                .mapToObj(i -> UuidV7.next(now))
+                .toList();
+
+        for (int i = 1; i < ids.size(); i++) {
+            assertTrue(ids.get(i - 1).toString().compareTo(ids.get(i).toString()) < 0);
+        }
+    }
+
+    @Test
+    void nextTest_uniqueAcrossThreads() {
+        Set<UUID> ids = ConcurrentHashMap.newKeySet();
+
+        IntStream.range(0, 100_000).parallel().forEach(i -> ids.add(UuidV7.next()));
+
+        assertEquals(100_000, ids.size());
+    }
+}
@@ -0,0 +1,66 @@
+package io.github.vladislav.todolistspring.events.unit;
+
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.events.TaskEventSubscriber;
+import io.github.vladislav.todolistspring.events.TaskEventSubscriber.Frame;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskEventSubscriberTest {
+
+    private final List<Runnable> pending = new ArrayList<>();
+    private final RecordingEmitter emitter = new RecordingEmitter();
+
+    @Test
+    void offerTest_filteredByStatus() {
+        TaskEventSubscriber subscriber = new TaskEventSubscriber(emitter, Set.of(TaskStatus.TODO), 4, Runnable::run);
+
+        subscriber.offer(new Frame("CREATED", "{}", Set.of(TaskStatus.DONE)));
+        subscriber.offer(new Frame("CREATED", "{}", Set.of(TaskStatus.TODO)));
+        subscriber.offer(new Frame("DELETED", "{}", null));
+
+        assertEquals(2, emitter.sent);
+    }
+
+    @Test
+    void offerTest_oneDrainTaskForBurst() {
+        TaskEventSubscriber subscriber = new TaskEventSubscriber(emitter, null, 4, pending::add);
+
+        subscriber.offer(new Frame("CREATED", "{}", null));
+        subscriber.offer(new Frame("UPDATED", "{}", null));
+        assertEquals(1, pending.size());
+
+        pending.removeFirst().run();
+        assertEquals(2, emitter.sent);
+    }
+
+    @Test
+    void offerTest_slowSubscriberDropped() {
+        TaskEventSubscriber subscriber = new TaskEventSubscriber(emitter, null, 2, pending::add);
+
+        assertTrue(subscriber.offer(new Frame("CREATED", "{}", null)));
+        assertTrue(subscriber.offer(new Frame("CREATED", "{}", null)));
+        assertFalse(subscriber.offer(new Frame("CREATED", "{}", null)));
+
+        assertTrue(subscriber.isClosed());
+        pending.forEach(Runnable::run);
+        assertEquals(0, emitter.sent);
+    }
+
+    private static class RecordingEmitter extends SseEmitter {
+        private int sent;
+
+        @Override
+        public void send(SseEventBuilder builder) {
+            sent++;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package io.github.vladislav.todolistspring.metrics.unit;
+
+import io.github.vladislav.todolistspring.metrics.QueryCountInspector;
+import io.github.vladislav.todolistspring.metrics.QueryCountInterceptor;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.servlet.HandlerMapping;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class QueryCountInterceptorTest {
+
+    @Test
+    void afterCompletionTest_recordsQueriesOfRequest() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        QueryCountInterceptor interceptor = new QueryCountInterceptor(registry);
+        QueryCountInspector inspector = new QueryCountInspector(0);
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/tasks/1");
+        request.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/v1/tasks/{id}");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        inspector.inspect("select 1");
+        interceptor.preHandle(request, response, null);
+        inspector.inspect("select 2");
+        inspector.inspect("select 3");
+        interceptor.afterCompletion(request, response, null, null);
+
+        DistributionSummary summary = registry.get("todo.db.queries")
+                .tag("uri", "/v1/tasks/{id}")
+                .summary();
+        assertEquals(1, summary.count());
+        assertEquals(2.0, summary.totalAmount());
+    }
+}
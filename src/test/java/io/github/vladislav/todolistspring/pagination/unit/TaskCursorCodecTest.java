@@ -0,0 +1,57 @@
+package io.github.vladislav.todolistspring.pagination.unit;
+
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import io.github.vladislav.todolistspring.pagination.TaskCursor;
+import io.github.vladislav.todolistspring.pagination.TaskCursorCodec;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.KeysetScrollPosition;
+import org.springframework.data.domain.Sort;
+
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class TaskCursorCodecTest {
+
+    @Test
+    void encodeDecodeTest_roundTrip() {
+        UUID id = UUID.randomUUID();
+        LocalDate dueDate = LocalDate.now().plusDays(3);
+        Task last = Task.builder()
+                .id(id)
+                .title("Task title")
+                .dueDate(dueDate)
+                .status(TaskStatus.TODO)
+                .build();
+
+        String token = TaskCursorCodec.encode(TaskCursorCodec.first("dueDate", Sort.Direction.DESC), last);
+        TaskCursor cursor = TaskCursorCodec.decode(token);
+
+        assertEquals(Sort.by(Sort.Direction.DESC, "dueDate").and(Sort.by(Sort.Direction.DESC, "id")), cursor.sort());
+        KeysetScrollPosition position = (KeysetScrollPosition) cursor.position();
+        assertEquals(dueDate, position.getKeys().get("dueDate"));
+        assertEquals(id, position.getKeys().get("id"));
+    }
+
+    @Test
+    void firstTest_initialPosition() {
+        TaskCursor cursor = TaskCursorCodec.first("title", Sort.Direction.ASC);
+
+        assertTrue(cursor.position().isInitial());
+    }
+
+    @Test
+    void firstTest_unsupportedSortProperty() {
+        assertThrows(InvalidCursorException.class, () -> TaskCursorCodec.first("description", Sort.Direction.ASC));
+    }
+
+    @Test
+    void decodeTest_malformedToken() {
+        assertThrows(InvalidCursorException.class, () -> TaskCursorCodec.decode("not-a-cursor"));
+    }
+}
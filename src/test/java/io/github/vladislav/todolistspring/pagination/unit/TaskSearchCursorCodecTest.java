@@ -0,0 +1,30 @@
+package io.github.vladislav.todolistspring.pagination.unit;
+
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursor;
+import io.github.vladislav.todolistspring.pagination.TaskSearchCursorCodec;
+import org.junit.jupiter.api.Test;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class TaskSearchCursorCodecTest {
+
+    @Test
+    void encodeDecodeTest_roundTripKeepsExactRank() {
+        TaskSearchCursor cursor = new TaskSearchCursor("молоко".hashCode(), 0.0607927f, UUID.randomUUID());
+
+        TaskSearchCursor decoded = TaskSearchCursorCodec.decode(TaskSearchCursorCodec.encode(cursor), "молоко");
+
+        assertEquals(cursor, decoded);
+    }
+
+    @Test
+    void decodeTest_cursorFromAnotherQuery() {
+        String token = TaskSearchCursorCodec.encode(new TaskSearchCursor("молоко".hashCode(), 0.5f, UUID.randomUUID()));
+
+        assertThrows(InvalidCursorException.class, () -> TaskSearchCursorCodec.decode(token, "хлеб"));
+    }
+}
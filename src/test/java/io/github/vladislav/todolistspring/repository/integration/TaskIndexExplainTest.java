@@ -0,0 +1,309 @@
+package io.github.vladislav.todolistspring.repository.integration;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.pagination.TaskCursor;
+import io.github.vladislav.todolistspring.pagination.TaskCursorCodec;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.testcontainers.service.connection.ServiceConnection;
+import org.springframework.context.annotation.Bean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.ScrollPosition;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Проверяет по EXPLAIN, что запросы списков задач используют индексы из миграций.
+ * Объясняется SQL, который на самом деле отправили Hibernate и Spring Data, с теми же параметрами:
+ * он перехватывается на уровне JDBC и выполняется через PREPARE / EXPLAIN EXECUTE.
+ * Нужен Docker, без него тест пропускается
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE,
+        properties = "spring.jpa.show-sql=false")
+@Testcontainers(disabledWithoutDocker = true)
+public class TaskIndexExplainTest {
+
+    @Container
+    @ServiceConnection
+    static PostgreSQLContainer postgres = new PostgreSQLContainer("postgres:17-alpine");
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        if (jdbcTemplate.queryForObject("select count(*) from tasks", Long.class) > 0) {
+            return;
+        }
+        // 80% завершённых задач, как в реальных данных
+        jdbcTemplate.execute("""
+                insert into tasks (id, title, description, due_date, status)
+                select gen_random_uuid(),
+                       'Task ' || g,
+                       null,
+                       date '2020-01-01' + (g % 2000),
+                       case when g % 10 < 8 then 'DONE' when g % 10 = 8 then 'TODO' else 'IN_PROGRESS' end
+                from generate_series(1, 100000) g
+                """);
+        jdbcTemplate.execute("analyze tasks");
+    }
+
+    @Test
+    void statusFilterSortedByDueDate_usesStatusIndex() {
+        String plan = explain(() -> taskService.getTaskDtos(
+                TaskFilterDto.builder().status(TaskStatus.TODO).build(), firstPage()));
+
+        assertUsesIndex("tasks_status_due_date_id_idx", plan);
+        assertFalse(plan.contains("tasks_archive"), () -> "Архивная секция не должна читаться:\n" + plan);
+    }
+
+    @Test
+    void statusFilterKeysetPage_usesStatusIndex() {
+        TaskCursor cursor = new TaskCursor(TaskCursorCodec.SortKey.DUE_DATE, Sort.Direction.ASC,
+                ScrollPosition.forward(Map.of(
+                        "dueDate", LocalDate.parse("2022-06-01"),
+                        "id", UUID.fromString("80000000-0000-0000-0000-000000000000"))));
+
+        String plan = explain(() -> taskService.scrollTasks(
+                TaskFilterDto.builder().status(TaskStatus.TODO).build(), cursor, 20));
+
+        assertUsesIndex("tasks_status_due_date_id_idx", plan);
+    }
+
+    @Test
+    void unfilteredSortedByDueDate_usesDueDateIndex() {
+        String plan = explain(() -> taskService.getTaskDtos(TaskFilterDto.builder().build(), firstPage()));
+
+        assertUsesIndex("tasks_due_date_id_idx", plan);
+    }
+
+    @Test
+    void activeTasksSortedByDueDate_usesPartialIndex() {
+        String plan = explain(() -> taskService.getTaskDtos(
+                TaskFilterDto.builder().overdue(true).build(), firstPage()));
+
+        assertUsesIndex("tasks_active_due_date_id_idx", plan);
+    }
+
+    @Test
+    void fullTextSearch_usesSearchVectorIndex() {
+        String plan = explain(() -> taskService.searchTasks(TaskFilterDto.builder().build(), "Task 4242", null, 20));
+
+        assertUsesIndex("tasks_search_vector_idx", plan);
+    }
+
+    @Test
+    void archiverBatch_usesDoneUpdatedAtIndex() {
+        // Срез в прошлом: запрос выполняется, но ничего не переносит
+        String plan = explain(() -> transactionTemplate.executeWithoutResult(status -> {
+            status.setRollbackOnly();
+            taskRepository.archiveDone(Instant.parse("2000-01-01T00:00:00Z"), 1000);
+        }));
+
+        assertUsesIndex("tasks_hot_done_updated_at_idx", plan);
+    }
+
+    private PageRequest firstPage() {
+        return PageRequest.of(0, 20, Sort.by("dueDate", "id"));
+    }
+
+    /**
+     * Выполняет вызов, перехватывая его SQL, и возвращает план последнего запроса с теми же параметрами
+     */
+    private String explain(Runnable call) {
+        List<SqlCapture.Captured> statements = SqlCapture.start();
+        try {
+            call.run();
+        } finally {
+            SqlCapture.stop();
+        }
+        assertFalse(statements.isEmpty(), "Вызов не выполнил ни одного запроса");
+        SqlCapture.Captured statement = statements.getLast();
+
+        return jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement jdbc = connection.createStatement()) {
+                jdbc.execute("prepare explained as " + statement.numberedSql());
+                try {
+                    List<String> plan = new ArrayList<>();
+                    try (ResultSet rows = jdbc.executeQuery("explain execute explained" + statement.arguments())) {
+                        while (rows.next()) {
+                            plan.add(rows.getString(1));
+                        }
+                    }
+                    return statement.sql() + "\n" + String.join("\n", plan);
+                } finally {
+                    jdbc.execute("deallocate explained");
+                }
+            }
+        });
+    }
+
+    private void assertUsesIndex(String index, String plan) {
+        assertTrue(plan.contains(index), () -> "Ожидался " + index + " в плане:\n" + plan);
+    }
+
+    @TestConfiguration
+    static class SqlCaptureConfig {
+
+        @Bean
+        static BeanPostProcessor sqlCaptureDataSource() {
+            return new BeanPostProcessor() {
+                @Override
+                public Object postProcessAfterInitialization(Object bean, String beanName) {
+                    return bean instanceof DataSource dataSource ? new SqlCapture(dataSource) : bean;
+                }
+            };
+        }
+    }
+
+    /**
+     * Запоминает SQL и параметры PreparedStatement, подготовленных в текущем потоке между start и stop
+     */
+    static class SqlCapture extends DelegatingDataSource {
+        private static final ThreadLocal<List<Captured>> CAPTURED = new ThreadLocal<>();
+
+        SqlCapture(DataSource target) {
+            super(target);
+        }
+
+        /**
+         * @return - список, в который попадут запросы текущего потока до {@link #stop()}
+         */
+        static List<Captured> start() {
+            List<Captured> statements = new ArrayList<>();
+            CAPTURED.set(statements);
+            return statements;
+        }
+
+        static void stop() {
+            CAPTURED.remove();
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return capturing(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return capturing(super.getConnection(username, password));
+        }
+
+        private Connection capturing(Connection connection) {
+            return (Connection) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[]{Connection.class},
+                    (proxy, method, args) -> {
+                        Object result = invoke(connection, method, args);
+                        List<Captured> statements = CAPTURED.get();
+                        if (statements != null && result instanceof PreparedStatement prepared
+                                && method.getName().equals("prepareStatement")) {
+                            Captured statement = new Captured((String) args[0], new TreeMap<>());
+                            statements.add(statement);
+                            return recording(prepared, statement);
+                        }
+                        return result;
+                    });
+        }
+
+        private PreparedStatement recording(PreparedStatement prepared, Captured statement) {
+            return (PreparedStatement) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{PreparedStatement.class},
+                    (proxy, method, args) -> {
+                        if (method.getName().startsWith("set") && args != null && args.length >= 2
+                                && args[0] instanceof Integer index) {
+                            statement.parameters().put(index, method.getName().equals("setNull") ? null : args[1]);
+                        }
+                        return invoke(prepared, method, args);
+                    });
+        }
+
+        private static Object invoke(Object target, Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+
+        /**
+         * @param sql - SQL с параметрами ?
+         * @param parameters - значения параметров по номерам
+         */
+        record Captured(String sql, Map<Integer, Object> parameters) {
+
+            /**
+             * SQL для PREPARE: параметры JDBC ? заменены на $1, $2, ...
+             */
+            String numberedSql() {
+                StringBuilder numbered = new StringBuilder();
+                int index = 0;
+                for (char c : sql.toCharArray()) {
+                    if (c == '?') {
+                        numbered.append('$').append(++index);
+                    } else {
+                        numbered.append(c);
+                    }
+                }
+                assertEquals(parameters.size(), index, () -> "Не все параметры перехвачены: " + sql);
+                return numbered.toString();
+            }
+
+            /**
+             * Аргументы EXECUTE литералами, типы Postgres выводит из контекста параметров
+             */
+            String arguments() {
+                if (parameters.isEmpty()) {
+                    return "";
+                }
+                List<String> literals = parameters.values().stream()
+                        .map(value -> value == null ? "null"
+                                : value instanceof Number ? value.toString()
+                                : "'" + value.toString().replace("'", "''") + "'")
+                        .toList();
+                return "(" + String.join(", ", literals) + ")";
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+package io.github.vladislav.todolistspring.repository.unit;
+
+import io.github.vladislav.todolistspring.admission.RequestDeadline;
+import io.github.vladislav.todolistspring.exception.DeadlineExceededException;
+import io.github.vladislav.todolistspring.repository.QueryDeadlineInterceptor;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.aopalliance.intercept.MethodInvocation;
+import org.hibernate.jpa.SpecHints;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class QueryDeadlineInterceptorTest {
+
+    @Mock
+    private EntityManagerFactory entityManagerFactory;
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private MethodInvocation invocation;
+
+    private QueryDeadlineInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new QueryDeadlineInterceptor(entityManagerFactory);
+        TransactionSynchronizationManager.bindResource(entityManagerFactory, new EntityManagerHolder(entityManager));
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestDeadline.clear();
+        TransactionSynchronizationManager.unbindResource(entityManagerFactory);
+    }
+
+    @Test
+    void invokeTest_subSecondRemainderRoundedUp() throws Throwable {
+        RequestDeadline.start(Duration.ofMillis(300));
+        when(invocation.proceed()).thenReturn("result");
+
+        assertEquals("result", interceptor.invoke(invocation));
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_QUERY_TIMEOUT, 1000);
+    }
+
+    @Test
+    void invokeTest_remainderInWholeSeconds() throws Throwable {
+        RequestDeadline.start(Duration.ofMillis(2500));
+
+        interceptor.invoke(invocation);
+
+        verify(entityManager).setProperty(SpecHints.HINT_SPEC_QUERY_TIMEOUT, 3000);
+    }
+
+    @Test
+    void invokeTest_expiredDeadlineRejectedBeforeQuery() throws Throwable {
+        RequestDeadline.start(Duration.ZERO);
+
+        assertThrows(DeadlineExceededException.class, () -> interceptor.invoke(invocation));
+        verify(invocation, never()).proceed();
+    }
+
+    @Test
+    void invokeTest_withoutDeadlineTimeoutNotSet() throws Throwable {
+        interceptor.invoke(invocation);
+
+        verify(entityManager, never()).setProperty(anyString(), eq(1000));
+        verify(invocation).proceed();
+    }
+}
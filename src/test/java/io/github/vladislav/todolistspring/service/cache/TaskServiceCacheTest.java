@@ -0,0 +1,125 @@
+package io.github.vladislav.todolistspring.service.cache;
+
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskVersionDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.StatusChange;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.TaskState;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import io.github.vladislav.todolistspring.service.TaskService;
+import io.github.vladislav.todolistspring.service.TaskStatusBuffer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.junit.jupiter.SpringJUnitConfig;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringJUnitConfig
+public class TaskServiceCacheTest {
+
+    @Configuration
+    @Import({CacheConfig.class, TaskService.class})
+    static class Config {
+        @Bean
+        CacheManager cacheManager() {
+            return new ConcurrentMapCacheManager(CacheConfig.TASKS_CACHE);
+        }
+    }
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @MockitoBean
+    private TaskRepository taskRepository;
+
+    @MockitoBean
+    private TaskMapper taskMapper;
+
+    @MockitoBean
+    private TaskCountService taskCountService;
+
+    @MockitoBean
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @MockitoBean
+    private TaskStatusBuffer taskStatusBuffer;
+
+    private final UUID id = UUID.randomUUID();
+    private final Task task = Task.builder()
+            .id(id)
+            .title("Task title")
+            .status(TaskStatus.TODO)
+            .dueDate(LocalDate.now().plusDays(1))
+            .build();
+    private final TaskVersionDto taskVersion = new TaskVersionDto(TaskDto.builder()
+            .title("Task title")
+            .status(TaskStatus.TODO)
+            .dueDate(task.getDueDate())
+            .build(), 0, Instant.now());
+
+    @BeforeEach
+    void setUp() {
+        cacheManager.getCache(CacheConfig.TASKS_CACHE).clear();
+        when(taskRepository.findById(id)).thenReturn(Optional.of(task));
+        when(taskMapper.toVersionDto(task)).thenReturn(taskVersion);
+    }
+
+    @Test
+    void getTaskVersionTest_secondCallServedFromCache() {
+        TaskVersionDto first = taskService.getTaskVersion(id);
+        TaskVersionDto second = taskService.getTaskVersion(id);
+
+        assertSame(first, second);
+        verify(taskRepository, times(1)).findById(id);
+    }
+
+    @Test
+    void updateTaskStatusTest_evictsCachedTask() {
+        when(taskRepository.changeStatus(id, TaskStatus.DONE, null)).thenReturn(Optional.of(
+                new StatusChange(task, new TaskState(TaskStatus.TODO, false))));
+        taskService.getTaskVersion(id);
+
+        taskService.updateTaskStatus(TaskStatus.DONE, id, null);
+        taskService.getTaskVersion(id);
+
+        verify(taskRepository, times(2)).findById(id);
+    }
+
+    @Test
+    void deleteTaskTest_evictsCachedTask() {
+        when(taskRepository.deleteReturningState(id)).thenReturn(Optional.of(new TaskState(TaskStatus.TODO, false)));
+        taskService.getTaskVersion(id);
+        clearInvocations(taskRepository);
+
+        taskService.deleteTask(id);
+
+        assertEquals(null, cacheManager.getCache(CacheConfig.TASKS_CACHE).get(id));
+        verify(taskRepository, times(0)).findById(any());
+    }
+}
@@ -0,0 +1,74 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.TaskArchiveProperties;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskArchiveService;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskArchiveServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskCountService taskCountService;
+
+    @Test
+    void archiveTest_batchesUntilPartialBatch() {
+        TaskArchiveService service = service(3);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.archiveDone(any(), eq(100))).thenReturn(100, 100, 40);
+
+        assertEquals(240, service.archive());
+        verify(taskRepository, times(3)).archiveDone(any(), eq(100));
+        verify(taskCountService).invalidate();
+    }
+
+    @Test
+    void archiveTest_stopsAtMaxBatches() {
+        TaskArchiveService service = service(2);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.archiveDone(any(), eq(100))).thenReturn(100);
+
+        assertEquals(200, service.archive());
+        verify(taskRepository, times(2)).archiveDone(any(), eq(100));
+    }
+
+    @Test
+    void archiveTest_nothingToArchive() {
+        TaskArchiveService service = service(3);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(taskRepository.archiveDone(any(), eq(100))).thenReturn(0);
+
+        assertEquals(0, service.archive());
+        verify(taskCountService, never()).invalidate();
+    }
+
+    private TaskArchiveService service(int maxBatches) {
+        return new TaskArchiveService(taskRepository, transactionTemplate,
+                new TaskArchiveProperties(true, Duration.ofDays(30), 100, maxBatches), taskCountService);
+    }
+}
@@ -0,0 +1,168 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.config.TaskBatchProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskBatchResponseDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.BatchSizeExceededException;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskBatchService;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskBatchServiceTest {
+
+    private static final Validator VALIDATOR = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TaskCountService taskCountService;
+
+    private TaskBatchService taskBatchService;
+
+    @BeforeEach
+    void setUp() {
+        taskBatchService = new TaskBatchService(taskRepository, taskMapper, VALIDATOR, transactionTemplate,
+                new TaskBatchProperties(2, 10), new ConcurrentMapCacheManager(CacheConfig.TASKS_CACHE), taskCountService);
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+    }
+
+    @Test
+    void createTasksTest_chunkedAndInvalidItemReported() {
+        List<TaskDto> dtos = List.of(taskDto("Task 1"), taskDto(""), taskDto("Task 3"), taskDto("Task 4"));
+
+        when(taskMapper.toEntity(any(TaskDto.class))).thenAnswer(inv -> Task.builder()
+                .title(inv.<TaskDto>getArgument(0).title())
+                .build());
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            tasks.forEach(t -> t.setId(UUID.randomUUID()));
+            return tasks;
+        });
+
+        TaskBatchResponseDto result = taskBatchService.createTasks(dtos);
+
+        assertEquals(4, result.total());
+        assertEquals(3, result.succeeded());
+        assertFalse(result.items().get(1).success());
+        assertTrue(result.items().get(3).success());
+        verify(taskRepository, times(2)).saveAll(anyList());
+    }
+
+    @Test
+    void createTasksTest_failedChunkRetriedPerItem() {
+        List<TaskDto> dtos = List.of(taskDto("Task 1"), taskDto("Task 2"));
+
+        when(taskMapper.toEntity(any(TaskDto.class))).thenAnswer(inv -> Task.builder()
+                .title(inv.<TaskDto>getArgument(0).title())
+                .build());
+        when(taskRepository.saveAll(anyList())).thenAnswer(inv -> {
+            List<Task> tasks = inv.getArgument(0);
+            if (tasks.stream().anyMatch(t -> t.getTitle().equals("Task 2"))) {
+                throw new DataIntegrityViolationException("constraint");
+            }
+            tasks.forEach(t -> t.setId(UUID.randomUUID()));
+            return tasks;
+        });
+
+        TaskBatchResponseDto result = taskBatchService.createTasks(dtos);
+
+        assertEquals(1, result.succeeded());
+        assertTrue(result.items().get(0).success());
+        assertEquals("constraint", result.items().get(1).error());
+    }
+
+    @Test
+    void updateTasksTest_missingTaskReportedAsNotFound() {
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+        TaskPatchDto patch = TaskPatchDto.builder().title("Updated title").build();
+        Task existing = Task.builder()
+                .id(existingId)
+                .title("Old title")
+                .status(TaskStatus.TODO)
+                .build();
+
+        when(taskRepository.findAllById(any())).thenReturn(List.of(existing));
+
+        TaskBatchResponseDto result = taskBatchService.updateTasks(List.of(
+                new TaskBatchPatchDto(existingId, patch),
+                new TaskBatchPatchDto(missingId, patch)));
+
+        assertTrue(result.items().get(0).success());
+        assertFalse(result.items().get(1).success());
+        assertEquals(missingId, result.items().get(1).id());
+        verify(taskMapper).updateTaskFromDto(patch, existing);
+    }
+
+    @Test
+    void deleteTasksTest_deletesOnlyExisting() {
+        UUID existingId = UUID.randomUUID();
+        UUID missingId = UUID.randomUUID();
+
+        when(taskRepository.findExistingIds(any())).thenReturn(Set.of(existingId));
+
+        TaskBatchResponseDto result = taskBatchService.deleteTasks(List.of(existingId, missingId));
+
+        assertEquals(1, result.succeeded());
+        assertFalse(result.items().get(1).success());
+        verify(taskRepository).deleteAllByIdInBatch(Set.of(existingId));
+    }
+
+    @Test
+    void deleteTasksTest_tooManyItems() {
+        List<UUID> ids = Collections.nCopies(11, UUID.randomUUID());
+
+        assertThrows(BatchSizeExceededException.class, () -> taskBatchService.deleteTasks(ids));
+    }
+
+    private TaskDto taskDto(String title) {
+        return TaskDto.builder()
+                .title(title)
+                .dueDate(LocalDate.now().plusDays(1))
+                .status(TaskStatus.TODO)
+                .build();
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.TaskChangeProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangeDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskChangesDto;
+import io.github.vladislav.todolistspring.exception.ChangeTokenExpiredException;
+import io.github.vladislav.todolistspring.exception.InvalidCursorException;
+import io.github.vladislav.todolistspring.pagination.TaskChangeToken;
+import io.github.vladislav.todolistspring.pagination.TaskChangeTokenCodec;
+import io.github.vladislav.todolistspring.repository.TaskChangeRepository.Change;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskChangeService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskChangeServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskChangeService taskChangeService;
+
+    @BeforeEach
+    void setUp() {
+        taskChangeService = new TaskChangeService(taskRepository,
+                new TaskChangeProperties(Duration.ofSeconds(2), 2, Duration.ofDays(30)));
+    }
+
+    @Test
+    void changesTest_nextTokenPointsAfterLastReturnedChange() {
+        String since = TaskChangeTokenCodec.encode(new TaskChangeToken(10, Instant.now()));
+        when(taskRepository.findChanges(eq(10L), any(), eq(3))).thenReturn(List.of(
+                change(11, false), change(12, true), change(13, false)));
+
+        TaskChangesDto result = taskChangeService.changes(since, 100);
+
+        assertEquals(2, result.changes().size());
+        assertTrue(result.changes().get(1).deleted());
+        assertTrue(result.hasMore());
+        assertEquals(12, TaskChangeTokenCodec.decode(result.nextToken()).seq());
+    }
+
+    @Test
+    void changesTest_pageStopsAtFirstUnsettledChange() {
+        String since = TaskChangeTokenCodec.encode(new TaskChangeToken(10, Instant.now()));
+        // 12 ещё в окне settle, а 13 уже нет: транзакция с 12 могла закоммититься позже 13
+        when(taskRepository.findChanges(eq(10L), any(), eq(3))).thenReturn(List.of(
+                change(11, false), change(12, false, false), change(13, false)));
+
+        TaskChangesDto result = taskChangeService.changes(since, 100);
+
+        assertEquals(1, result.changes().size());
+        assertFalse(result.hasMore());
+        assertEquals(11, TaskChangeTokenCodec.decode(result.nextToken()).seq());
+    }
+
+    @Test
+    void changesTest_emptyPageKeepsPosition() {
+        String since = TaskChangeTokenCodec.encode(new TaskChangeToken(42, Instant.now()));
+        when(taskRepository.findChanges(eq(42L), any(), anyInt())).thenReturn(List.of());
+
+        TaskChangesDto result = taskChangeService.changes(since, 100);
+
+        assertFalse(result.hasMore());
+        assertEquals(42, TaskChangeTokenCodec.decode(result.nextToken()).seq());
+    }
+
+    @Test
+    void changesTest_tokenOlderThanRetention() {
+        String since = TaskChangeTokenCodec.encode(new TaskChangeToken(1, Instant.now().minus(Duration.ofDays(31))));
+
+        assertThrows(ChangeTokenExpiredException.class, () -> taskChangeService.changes(since, 100));
+        verify(taskRepository, never()).findChanges(anyLong(), any(), anyInt());
+    }
+
+    @Test
+    void changesTest_invalidToken() {
+        assertThrows(InvalidCursorException.class, () -> taskChangeService.changes("not-a-token", 100));
+    }
+
+    private Change change(long seq, boolean deleted) {
+        return change(seq, deleted, true);
+    }
+
+    private Change change(long seq, boolean deleted, boolean settled) {
+        return new Change(seq, new TaskChangeDto(UUID.randomUUID(), deleted, deleted ? null : 1L, null), settled);
+    }
+}
@@ -0,0 +1,109 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.TaskCountConfig;
+import io.github.vladislav.todolistspring.config.TaskCountProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskStatusCountDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.CountMode;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskCountServiceTest {
+
+    private static final Slice<Integer> FULL_PAGE = new SliceImpl<>(Collections.nCopies(10, 1), PageRequest.of(0, 10), true);
+    private static final TaskFilterDto TODO = TaskFilterDto.builder().status(TaskStatus.TODO).build();
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    private TaskCountService taskCountService;
+
+    @BeforeEach
+    void setUp() {
+        taskCountService = new TaskCountService(taskRepository,
+                new ConcurrentMapCacheManager(TaskCountConfig.TASK_COUNTS_CACHE),
+                new TaskCountProperties(CountMode.EXACT, Duration.ofSeconds(10), Duration.ofMinutes(5)));
+    }
+
+    @Test
+    void countTest_lastPageWithoutQuery() {
+        Slice<Integer> lastPage = new SliceImpl<>(List.of(1, 2, 3), PageRequest.of(2, 10), false);
+
+        assertEquals(23L, taskCountService.count(TODO, CountMode.EXACT, lastPage));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void countTest_noneOmitsTotal() {
+        assertNull(taskCountService.count(TODO, CountMode.NONE, FULL_PAGE));
+        verifyNoInteractions(taskRepository);
+    }
+
+    @Test
+    void countTest_statusCountersUpdatedByWrites() {
+        when(taskRepository.countByStatus()).thenReturn(List.of(
+                new TaskStatusCountDto(TaskStatus.TODO, 40),
+                new TaskStatusCountDto(TaskStatus.DONE, 60)));
+
+        assertEquals(40L, taskCountService.count(TODO, CountMode.CACHED, FULL_PAGE));
+        taskCountService.created(TaskStatus.TODO, 2);
+        taskCountService.moved(TaskStatus.TODO, TaskStatus.DONE, 5);
+
+        assertEquals(37L, taskCountService.count(TODO, CountMode.ESTIMATED, FULL_PAGE));
+        assertEquals(102L, taskCountService.count(TaskFilterDto.builder().build(), CountMode.CACHED, FULL_PAGE));
+        verify(taskRepository, times(1)).countByStatus();
+    }
+
+    @Test
+    void countTest_reloadNotPublishedWhenCommitArrivesDuringQuery() {
+        when(taskRepository.countByStatus()).thenAnswer(invocation -> {
+            // Коммит другой транзакции, не попавший в снимок
+            taskCountService.created(TaskStatus.TODO, 1);
+            return List.of(new TaskStatusCountDto(TaskStatus.TODO, 40));
+        }).thenReturn(List.of(new TaskStatusCountDto(TaskStatus.TODO, 41)));
+
+        assertEquals(40L, taskCountService.count(TODO, CountMode.CACHED, FULL_PAGE));
+        assertEquals(41L, taskCountService.count(TODO, CountMode.CACHED, FULL_PAGE));
+        assertEquals(41L, taskCountService.count(TODO, CountMode.CACHED, FULL_PAGE));
+        verify(taskRepository, times(2)).countByStatus();
+    }
+
+    @Test
+    void countTest_cachedPerFilterUntilWrite() {
+        TaskFilterDto filter = TaskFilterDto.builder().dueTo(LocalDate.now()).build();
+        when(taskRepository.count(ArgumentMatchers.<Specification<Task>>any())).thenReturn(15L);
+
+        taskCountService.count(filter, CountMode.CACHED, FULL_PAGE);
+        assertEquals(15L, taskCountService.count(filter, CountMode.CACHED, FULL_PAGE));
+        taskCountService.invalidate();
+        taskCountService.count(filter, CountMode.CACHED, FULL_PAGE);
+
+        verify(taskRepository, times(2)).count(ArgumentMatchers.<Specification<Task>>any());
+    }
+}
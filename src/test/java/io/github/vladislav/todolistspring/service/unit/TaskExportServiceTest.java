@@ -0,0 +1,104 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.TaskExportProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskExportDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.ExportFormat;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskExportService;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskExportServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private EntityManager entityManager;
+
+    private TaskExportService taskExportService;
+
+    private final List<Task> tasks = List.of(
+            Task.builder()
+                    .id(UUID.randomUUID())
+                    .title("Task 1")
+                    .description("plain")
+                    .dueDate(LocalDate.of(2030, 1, 1))
+                    .status(TaskStatus.TODO)
+                    .build(),
+            Task.builder()
+                    .id(UUID.randomUUID())
+                    .title("Task, \"quoted\"")
+                    .dueDate(LocalDate.of(2030, 1, 2))
+                    .status(TaskStatus.DONE)
+                    .build()
+    );
+
+    @BeforeEach
+    void setUp() {
+        taskExportService = new TaskExportService(taskRepository, taskMapper, entityManager,
+                JsonMapper.builder().build(), new TaskExportProperties(100, 1));
+        when(taskRepository.stream(ArgumentMatchers.<Specification<Task>>any(), any(Sort.class), anyInt()))
+                .thenReturn(tasks.stream());
+        when(taskMapper.toExportDto(any(Task.class))).thenAnswer(inv -> {
+            Task t = inv.getArgument(0);
+            return new TaskExportDto(t.getId(), t.getTitle(), t.getDescription(), t.getDueDate(), t.getStatus());
+        });
+    }
+
+    @Test
+    void exportTest_ndjsonOneLinePerTask() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        long count = taskExportService.export(TaskFilterDto.builder().build(), ExportFormat.NDJSON, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(2, count);
+        assertEquals(2, lines.length);
+        assertTrue(lines[0].contains("\"title\":\"Task 1\""));
+        assertTrue(lines[1].contains("\"status\":\"DONE\""));
+    }
+
+    @Test
+    void exportTest_csvEscapesAndDetachesEntities() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        taskExportService.export(TaskFilterDto.builder().status(TaskStatus.DONE).build(), ExportFormat.CSV, out);
+
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals("id,title,description,dueDate,status", lines[0]);
+        assertEquals(tasks.get(1).getId() + ",\"Task, \"\"quoted\"\"\",,2030-01-02,DONE", lines[2]);
+        verify(entityManager, times(2)).detach(any(Task.class));
+    }
+}
@@ -0,0 +1,186 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.IdempotencyProperties;
+import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.IdempotencyKeyReusedException;
+import io.github.vladislav.todolistspring.exception.InvalidIdempotencyKeyException;
+import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.repository.TaskIdempotencyRepository.StoredResponse;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskIdempotencyService;
+import io.github.vladislav.todolistspring.service.TaskService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskIdempotencyServiceTest {
+
+    private static final String KEY = "key-1";
+
+    private final ObjectMapper objectMapper = JsonMapper.builder().build();
+
+    @Mock
+    private TaskService taskService;
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskMapper taskMapper;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private TaskIdempotencyService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new TaskIdempotencyService(taskService, taskRepository, taskMapper, transactionTemplate,
+                objectMapper, new IdempotencyProperties(Duration.ofHours(24), 100, 16), new SimpleMeterRegistry());
+        lenient().when(transactionTemplate.execute(any()))
+                .thenAnswer(inv -> inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        lenient().when(taskMapper.toDto(any(Task.class))).thenAnswer(inv -> {
+            Task task = inv.getArgument(0);
+            return TaskDto.builder()
+                    .title(task.getTitle())
+                    .dueDate(task.getDueDate())
+                    .status(task.getStatus())
+                    .build();
+        });
+    }
+
+    @Test
+    void createTaskTest_repeatedKeyServedFromMemory() {
+        TaskDto dto = taskDto("Task");
+        when(taskRepository.claimIdempotencyKey(eq(KEY), anyLong(), any())).thenReturn(true);
+        when(taskService.createTask(dto)).thenReturn(task(dto));
+
+        TaskDto first = service.createTask(dto, KEY);
+        TaskDto second = service.createTask(dto, KEY);
+
+        assertEquals(first, second);
+        verify(taskService, times(1)).createTask(dto);
+        verify(taskRepository).completeIdempotencyKey(eq(KEY), any(UUID.class), anyString());
+    }
+
+    @Test
+    void createTaskTest_keyClaimedElsewhereReadFromDb() {
+        TaskDto dto = taskDto("Task");
+        AtomicLong fingerprint = new AtomicLong();
+        when(taskRepository.claimIdempotencyKey(eq(KEY), anyLong(), any())).thenAnswer(inv -> {
+            fingerprint.set(inv.getArgument(1));
+            return false;
+        });
+        // Другой экземпляр уже сохранил ответ с тем же отпечатком
+        when(taskRepository.findIdempotencyKey(KEY)).thenAnswer(inv -> Optional.of(
+                new StoredResponse(fingerprint.get(), objectMapper.writeValueAsString(dto))));
+
+        TaskDto result = service.createTask(dto, KEY);
+
+        assertEquals(dto, result);
+        verify(taskService, never()).createTask(any());
+    }
+
+    @Test
+    void createTaskTest_sameKeyDifferentBodyRejected() {
+        when(taskRepository.claimIdempotencyKey(eq(KEY), anyLong(), any())).thenReturn(true);
+        when(taskService.createTask(any())).thenAnswer(inv -> task(inv.getArgument(0)));
+        service.createTask(taskDto("Task"), KEY);
+
+        assertThrows(IdempotencyKeyReusedException.class, () -> service.createTask(taskDto("Other"), KEY));
+        verify(taskService, times(1)).createTask(any());
+    }
+
+    @Test
+    void createTaskTest_concurrentDuplicatesCollapsed() throws Exception {
+        TaskDto dto = taskDto("Task");
+        CountDownLatch claimed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(taskRepository.claimIdempotencyKey(eq(KEY), anyLong(), any())).thenAnswer(inv -> {
+            claimed.countDown();
+            release.await();
+            return true;
+        });
+        when(taskService.createTask(dto)).thenReturn(task(dto));
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<TaskDto> first = executor.submit(() -> service.createTask(dto, KEY));
+            claimed.await();
+            Future<TaskDto> second = executor.submit(() -> service.createTask(dto, KEY));
+            release.countDown();
+
+            assertEquals(first.get(), second.get());
+        } finally {
+            executor.shutdownNow();
+        }
+        verify(taskService, times(1)).createTask(dto);
+    }
+
+    @Test
+    void createTaskTest_tooLongKey() {
+        assertThrows(InvalidIdempotencyKeyException.class,
+                () -> service.createTask(taskDto("Task"), "k".repeat(17)));
+    }
+
+    @Test
+    void createTaskTest_withoutKey() {
+        TaskDto dto = taskDto("Task");
+        when(taskService.createTask(dto)).thenReturn(task(dto));
+
+        service.createTask(dto, null);
+        service.createTask(dto, null);
+
+        verify(taskService, times(2)).createTask(dto);
+        verify(taskRepository, never()).claimIdempotencyKey(anyString(), anyLong(), any());
+    }
+
+    private Task task(TaskDto dto) {
+        return Task.builder()
+                .id(UUID.randomUUID())
+                .title(dto.title())
+                .dueDate(dto.dueDate())
+                .status(dto.status())
+                .build();
+    }
+
+    private TaskDto taskDto(String title) {
+        return TaskDto.builder()
+                .title(title)
+                .dueDate(LocalDate.now().plusDays(1))
+                .status(TaskStatus.TODO)
+                .build();
+    }
+}
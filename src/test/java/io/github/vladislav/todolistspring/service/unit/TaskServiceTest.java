@@ -1,16 +1,29 @@
 package io.github.vladislav.todolistspring.service.unit;
 
+import io.github.vladislav.todolistspring.dto.tasks.TaskBulkStatusDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
 import io.github.vladislav.todolistspring.dto.tasks.TaskPatchDto;
+import io.github.vladislav.todolistspring.dto.tasks.TaskSearchHitDto;
 import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.enums.TaskField;
 import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.exception.InvalidFieldsException;
+import io.github.vladislav.todolistspring.exception.PreconditionFailedException;
 import io.github.vladislav.todolistspring.mapper.TaskMapper;
+import io.github.vladislav.todolistspring.pagination.TaskCursorCodec;
 import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.StatusChange;
+import io.github.vladislav.todolistspring.repository.TaskStatusChangeRepository.TaskState;
+import io.github.vladislav.todolistspring.service.TaskCountService;
 import io.github.vladislav.todolistspring.service.TaskService;
+import io.github.vladislav.todolistspring.service.TaskStatusBuffer;
 import jakarta.persistence.EntityNotFoundException;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -18,20 +31,30 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.ScrollPosition;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.domain.Window;
 import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.domain.UpdateSpecification;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.ThreadLocalRandom;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -47,6 +70,15 @@ public class TaskServiceTest {
     @Mock
     private TaskMapper taskMapper;
 
+    @Mock
+    private TaskCountService taskCountService;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    @Mock
+    private TaskStatusBuffer taskStatusBuffer;
+
     @Test
     void getAllTasksTest_success() {
         List<Task> tasks = generateTasks(4, false);
@@ -56,13 +88,46 @@ public class TaskServiceTest {
                 .status(null)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         assertEquals(4L, taskService.getAllTasks(filterDto, pageable).getTotalElements());
 
     }
 
+    @Test
+    void getTaskDtosTest_projectionWithoutEntities() {
+        Pageable pageable = PageRequest.of(0, 10);
+        TaskDto dto = TaskDto.builder()
+                .title("Task title")
+                .status(TaskStatus.TODO)
+                .dueDate(LocalDate.now().plusDays(1))
+                .build();
+
+        when(taskRepository.findAllDto(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(dto)));
+
+        assertEquals(List.of(dto), taskService.getTaskDtos(TaskFilterDto.builder().build(), pageable).getContent());
+        verify(taskRepository, never()).findAll(ArgumentMatchers.<Specification<Task>>any(), any(Pageable.class));
+    }
+
+    @Test
+    void getTaskFieldsTest_requestedFieldsPassed() {
+        Pageable pageable = PageRequest.of(0, 10);
+        Set<TaskField> fields = TaskField.parse(List.of("title", "status"));
+        Map<String, Object> row = Map.of("title", "Task title", "status", TaskStatus.TODO);
+
+        when(taskRepository.findAllFields(ArgumentMatchers.<Specification<Task>>any(), eq(fields), eq(pageable)))
+                .thenReturn(new PageImpl<>(List.of(row)));
+
+        assertEquals(List.of(row), taskService.getTaskFields(TaskFilterDto.builder().build(), fields, pageable).getContent());
+    }
+
+    @Test
+    void parseFieldsTest_unknownField() {
+        assertThrows(InvalidFieldsException.class, () -> TaskField.parse(List.of("title", "id")));
+    }
+
     @Test
     void getTaskByIdTest_success() {
         UUID id = UUID.randomUUID();
@@ -77,6 +142,8 @@ public class TaskServiceTest {
         when(taskRepository.findById(id)).thenReturn(Optional.ofNullable(task));
 
         assertEquals(id, taskService.getTaskById(id).getId());
+        // Буфер записывает вызывающий до транзакции, внутри неё запись заняла бы второе соединение
+        verify(taskStatusBuffer, never()).flush(id);
     }
 
     @Test
@@ -143,7 +210,7 @@ public class TaskServiceTest {
 
         when(taskRepository.findById(id)).thenReturn(Optional.of(existingTask));
 
-        Task result = taskService.updateTask(taskPatchDto, id);
+        Task result = taskService.updateTask(taskPatchDto, id, null);
 
         assertEquals(id, result.getId());
     }
@@ -158,55 +225,172 @@ public class TaskServiceTest {
 
         when(taskRepository.findById(id)).thenReturn(Optional.empty());
 
-        assertThrows(EntityNotFoundException.class, () -> taskService.updateTask(taskPatchDto, id));
+        assertThrows(EntityNotFoundException.class, () -> taskService.updateTask(taskPatchDto, id, null));
     }
 
     @Test
-    void updateTaskStatusTest_success() {
+    void updateTaskTest_staleVersion() {
         UUID id = UUID.randomUUID();
 
+        TaskPatchDto taskPatchDto = TaskPatchDto.builder()
+                .title("Updated title")
+                .build();
         Task existingTask = Task.builder()
+                .id(id)
+                .title("Old title")
+                .status(TaskStatus.TODO)
+                .version(3L)
+                .build();
+
+        when(taskRepository.findById(id)).thenReturn(Optional.of(existingTask));
+
+        assertThrows(PreconditionFailedException.class, () -> taskService.updateTask(taskPatchDto, id, 2L));
+        verify(taskMapper, never()).updateTaskFromDto(any(), any());
+    }
+
+    @Test
+    void updateTaskStatusTest_staleVersion() {
+        UUID id = UUID.randomUUID();
+
+        when(taskRepository.changeStatus(id, TaskStatus.DONE, 2L)).thenReturn(Optional.empty());
+        when(taskRepository.existsById(id)).thenReturn(true);
+
+        assertThrows(PreconditionFailedException.class,
+                () -> taskService.updateTaskStatus(TaskStatus.DONE, id, 2L));
+        verify(taskCountService, never()).moved(any(), any(), anyLong());
+    }
+
+    @Test
+    void updateTaskStatusTest_success() {
+        UUID id = UUID.randomUUID();
+
+        Task updatedTask = Task.builder()
                 .id(id)
                 .title("Task title")
                 .description("description")
-                .status(TaskStatus.TODO)
+                .status(TaskStatus.IN_PROGRESS)
                 .dueDate(LocalDate.now().plusDays(10))
                 .build();
 
-        when(taskRepository.findById(id)).thenReturn(Optional.of(existingTask));
+        when(taskRepository.changeStatus(id, TaskStatus.IN_PROGRESS, null)).thenReturn(Optional.of(
+                new StatusChange(updatedTask, new TaskState(TaskStatus.TODO, false))));
 
-        Task result = taskService.updateTaskStatus(TaskStatus.IN_PROGRESS, id);
+        Task result = taskService.updateTaskStatus(TaskStatus.IN_PROGRESS, id, null);
 
         assertEquals(TaskStatus.IN_PROGRESS, result.getStatus());
         assertEquals(id, result.getId());
+        verify(taskRepository, never()).findById(any());
+        verify(taskCountService).moved(TaskStatus.TODO, TaskStatus.IN_PROGRESS, 1);
+        verify(taskCountService, never()).invalidate();
+    }
+
+    @Test
+    void updateTaskStatusTest_fromArchiveCountedAsNew() {
+        UUID id = UUID.randomUUID();
+        Task updatedTask = Task.builder().id(id).status(TaskStatus.TODO).build();
+
+        when(taskRepository.changeStatus(id, TaskStatus.TODO, null)).thenReturn(Optional.of(
+                new StatusChange(updatedTask, new TaskState(TaskStatus.DONE, true))));
+
+        taskService.updateTaskStatus(TaskStatus.TODO, id, null);
+
+        verify(taskCountService).created(TaskStatus.TODO, 1);
+        verify(taskCountService, never()).moved(any(), any(), anyLong());
+    }
+
+    @Test
+    void updateTaskStatusTest_buffered() {
+        UUID id = UUID.randomUUID();
+        Task task = Task.builder()
+                .id(id)
+                .title("Task title")
+                .status(TaskStatus.TODO)
+                .version(3L)
+                .build();
+
+        when(taskStatusBuffer.isEnabled()).thenReturn(true);
+        when(taskRepository.findById(id)).thenReturn(Optional.of(task));
+
+        Task result = taskService.updateTaskStatus(TaskStatus.DONE, id, null);
+
+        assertEquals(TaskStatus.DONE, result.getStatus());
+        // Версию после записи буфер не обещает
+        assertNull(result.getVersion());
+        assertEquals(TaskStatus.TODO, task.getStatus());
+        verify(taskStatusBuffer).put(id, TaskStatus.DONE);
+        verify(taskRepository, never()).changeStatus(any(), any(), any());
+    }
+
+    @Test
+    void updateTaskStatusTest_ifMatchFlushesBufferedStatusFirst() {
+        UUID id = UUID.randomUUID();
+        Task updatedTask = Task.builder().id(id).status(TaskStatus.DONE).version(6L).build();
+
+        when(taskRepository.changeStatus(id, TaskStatus.DONE, 5L)).thenReturn(Optional.of(
+                new StatusChange(updatedTask, new TaskState(TaskStatus.IN_PROGRESS, false))));
+
+        taskService.updateTaskStatus(TaskStatus.DONE, id, 5L);
+
+        InOrder order = inOrder(taskStatusBuffer, taskRepository);
+        order.verify(taskStatusBuffer).flush(id);
+        order.verify(taskRepository).changeStatus(id, TaskStatus.DONE, 5L);
+        verify(taskStatusBuffer, never()).put(any(), any());
     }
 
     @Test
     void updateTaskStatusTest_TaskNotFound() {
         UUID id = UUID.randomUUID();
 
-        when(taskRepository.findById(id)).thenReturn(Optional.empty());
+        when(taskRepository.changeStatus(id, TaskStatus.DONE, null)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class,
-                () -> taskService.updateTaskStatus(TaskStatus.DONE, id));
+                () -> taskService.updateTaskStatus(TaskStatus.DONE, id, null));
+    }
+
+    @Test
+    void updateTasksStatusTest_success() {
+        TaskBulkStatusDto bulkStatus = TaskBulkStatusDto.builder()
+                .status(TaskStatus.IN_PROGRESS)
+                .dueBefore(LocalDate.now())
+                .newStatus(TaskStatus.DONE)
+                .build();
+
+        when(taskRepository.update(ArgumentMatchers.<UpdateSpecification<Task>>any())).thenReturn(7L);
+
+        assertEquals(7L, taskService.updateTasksStatus(bulkStatus));
+        verify(taskCountService).moved(TaskStatus.IN_PROGRESS, TaskStatus.DONE, 7L);
+        verify(taskStatusBuffer, never()).flush();
     }
 
     @Test
     void deleteTaskTest_success() {
         UUID id = UUID.randomUUID();
 
-        when(taskRepository.existsById(id)).thenReturn(true);
+        when(taskRepository.deleteReturningState(id)).thenReturn(Optional.of(new TaskState(TaskStatus.TODO, false)));
+
+        taskService.deleteTask(id);
+
+        verify(taskRepository, never()).findById(any());
+        verify(taskCountService).created(TaskStatus.TODO, -1);
+        verify(taskCountService, never()).invalidate();
+    }
+
+    @Test
+    void deleteTaskTest_archivedNotCounted() {
+        UUID id = UUID.randomUUID();
+
+        when(taskRepository.deleteReturningState(id)).thenReturn(Optional.of(new TaskState(TaskStatus.DONE, true)));
 
         taskService.deleteTask(id);
 
-        verify(taskRepository).deleteById(id);
+        verify(taskCountService, never()).created(any(), anyLong());
     }
 
     @Test
     void deleteTaskTest_TaskNotFound() {
         UUID id = UUID.randomUUID();
 
-        when(taskRepository.existsById(id)).thenReturn(false);
+        when(taskRepository.deleteReturningState(id)).thenReturn(Optional.empty());
 
         assertThrows(EntityNotFoundException.class, () -> taskService.deleteTask(id));
     }
@@ -232,7 +416,7 @@ public class TaskServiceTest {
                 .status(TaskStatus.IN_PROGRESS)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -251,7 +435,7 @@ public class TaskServiceTest {
                 .status(null)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -285,7 +469,7 @@ public class TaskServiceTest {
                 .status(null)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -326,7 +510,7 @@ public class TaskServiceTest {
                 .status(null)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -346,7 +530,7 @@ public class TaskServiceTest {
                 .status(null)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -380,7 +564,7 @@ public class TaskServiceTest {
                 .status(TaskStatus.DONE)
                 .build();
 
-        when(taskRepository.findAll(any(Specification.class), eq(pageable)))
+        when(taskRepository.findAll(ArgumentMatchers.<Specification<Task>>any(), eq(pageable)))
                 .thenReturn(page);
 
         Page<Task> result = taskService.getAllTasks(filterDto, pageable);
@@ -390,6 +574,42 @@ public class TaskServiceTest {
         assertEquals(TaskStatus.DONE, result.getContent().get(1).getStatus());
     }
 
+    @Test
+    void scrollTasksTest_returnsWindowWithoutCount() {
+        List<Task> tasks = generateTasks(3, false);
+        Window<Task> window = Window.from(tasks, ScrollPosition::offset, true);
+        TaskFilterDto filterDto = TaskFilterDto.builder()
+                .status(TaskStatus.TODO)
+                .build();
+
+        when(taskRepository.findBy(ArgumentMatchers.<Specification<Task>>any(), any()))
+                .thenReturn(window);
+
+        Window<Task> result = taskService.scrollTasks(filterDto, TaskCursorCodec.first("dueDate", Sort.Direction.ASC), 3);
+
+        assertEquals(3, result.size());
+        assertTrue(result.hasNext());
+        verify(taskRepository, never()).count(ArgumentMatchers.<Specification<Task>>any());
+    }
+
+    @Test
+    void searchTasksTest_extraRowTrimmedAndSignalsNextPage() {
+        List<TaskSearchHitDto> hits = List.of(
+                new TaskSearchHitDto(UUID.randomUUID(), 0.9f, TaskDto.builder().title("Купить молоко").build()),
+                new TaskSearchHitDto(UUID.randomUUID(), 0.5f, TaskDto.builder().title("Молоко").build()),
+                new TaskSearchHitDto(UUID.randomUUID(), 0.1f, TaskDto.builder().title("Сыр").build()));
+        TaskFilterDto filterDto = TaskFilterDto.builder()
+                .status(TaskStatus.TODO)
+                .build();
+
+        when(taskRepository.search(ArgumentMatchers.<Specification<Task>>any(), eq("молоко"), eq(null), eq(3))).thenReturn(hits);
+
+        Window<TaskSearchHitDto> result = taskService.searchTasks(filterDto, "молоко", null, 2);
+
+        assertEquals(2, result.size());
+        assertTrue(result.hasNext());
+        assertEquals(0.5f, result.getContent().getLast().rank());
+    }
 
     private List<Task> generateTasks(int n, boolean diffStatuses) {
         TaskStatus[] values = TaskStatus.values();
@@ -0,0 +1,134 @@
+package io.github.vladislav.todolistspring.service.unit;
+
+import io.github.vladislav.todolistspring.config.CacheConfig;
+import io.github.vladislav.todolistspring.config.StatusBufferProperties;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.enums.TaskStatus;
+import io.github.vladislav.todolistspring.events.TaskEventBroadcaster;
+import io.github.vladislav.todolistspring.exception.DatabaseBusyException;
+import io.github.vladislav.todolistspring.repository.TaskRepository;
+import io.github.vladislav.todolistspring.service.TaskCountService;
+import io.github.vladislav.todolistspring.service.TaskStatusBuffer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskStatusBufferTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    @Mock
+    private TaskCountService taskCountService;
+
+    @Mock
+    private TaskEventBroadcaster taskEventBroadcaster;
+
+    private final CacheManager cacheManager = new ConcurrentMapCacheManager(CacheConfig.TASKS_CACHE);
+
+    private TaskStatusBuffer buffer;
+
+    @BeforeEach
+    void setUp() {
+        // Планировщик не запускается (start не вызывается), запись только через flush
+        buffer = new TaskStatusBuffer(
+                new StatusBufferProperties(true, Duration.ofSeconds(1), 10, 2, Duration.ofMillis(10)),
+                taskRepository, transactionManager, cacheManager, taskCountService, taskEventBroadcaster,
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    void putTest_lastWriteWins() {
+        UUID id = UUID.randomUUID();
+        Task task = Task.builder().id(id).status(TaskStatus.DONE).build();
+
+        buffer.put(id, TaskStatus.IN_PROGRESS);
+        buffer.put(id, TaskStatus.DONE);
+        when(taskRepository.updateStatuses(any(), any())).thenReturn(List.of(task));
+
+        assertEquals(TaskStatus.DONE, buffer.pending(id));
+        buffer.flush();
+
+        verify(taskRepository, times(1)).updateStatuses(new UUID[]{id}, new String[]{"DONE"});
+        verify(taskEventBroadcaster).statusChanged(task);
+        verify(taskCountService).invalidate();
+        assertNull(buffer.pending(id));
+    }
+
+    @Test
+    void flushTest_singleTaskLeavesOthersPending() {
+        UUID id = UUID.randomUUID();
+        UUID other = UUID.randomUUID();
+        buffer.put(id, TaskStatus.DONE);
+        buffer.put(other, TaskStatus.DONE);
+        when(taskRepository.updateStatuses(any(), any())).thenReturn(List.of());
+
+        buffer.flush(id);
+
+        verify(taskRepository).updateStatuses(new UUID[]{id}, new String[]{"DONE"});
+        assertNull(buffer.pending(id));
+        assertEquals(TaskStatus.DONE, buffer.pending(other));
+    }
+
+    @Test
+    void flushTest_singleTaskWithoutPendingStatusDoesNothing() {
+        buffer.flush(UUID.randomUUID());
+
+        verify(taskRepository, never()).updateStatuses(any(), any());
+    }
+
+    @Test
+    void putTest_fullBufferRejected() {
+        buffer.put(UUID.randomUUID(), TaskStatus.DONE);
+        buffer.put(UUID.randomUUID(), TaskStatus.DONE);
+
+        assertThrows(DatabaseBusyException.class, () -> buffer.put(UUID.randomUUID(), TaskStatus.DONE));
+    }
+
+    @Test
+    void flushTest_freesCapacity() {
+        when(taskRepository.updateStatuses(any(), any())).thenReturn(List.of());
+        buffer.put(UUID.randomUUID(), TaskStatus.DONE);
+        buffer.put(UUID.randomUUID(), TaskStatus.DONE);
+
+        buffer.flush();
+        buffer.put(UUID.randomUUID(), TaskStatus.DONE);
+
+        verify(taskCountService, never()).invalidate();
+    }
+
+    @Test
+    void flushTest_failedBatchKept() {
+        UUID id = UUID.randomUUID();
+        buffer.put(id, TaskStatus.DONE);
+        when(taskRepository.updateStatuses(any(), any())).thenThrow(new QueryTimeoutException("timeout"));
+
+        assertThrows(QueryTimeoutException.class, () -> buffer.flush());
+
+        assertEquals(TaskStatus.DONE, buffer.pending(id));
+    }
+}
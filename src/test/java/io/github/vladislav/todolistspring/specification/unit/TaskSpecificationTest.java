@@ -0,0 +1,66 @@
+package io.github.vladislav.todolistspring.specification.unit;
+
+import io.github.vladislav.todolistspring.dto.tasks.TaskFilterDto;
+import io.github.vladislav.todolistspring.entity.Task;
+import io.github.vladislav.todolistspring.specification.TaskSpecification;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Root;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+public class TaskSpecificationTest {
+
+    @Mock
+    private Root<Task> root;
+
+    @Mock
+    private CriteriaBuilder cb;
+
+    @Mock
+    private Path<String> path;
+
+    @Mock
+    private Path<Boolean> archived;
+
+    @Test
+    void ofTest_emptyFilterAddsNoPredicates() {
+        TaskFilterDto filter = TaskFilterDto.builder().includeArchived(true).build();
+
+        assertNull(TaskSpecification.of(filter).toPredicate(root, cb));
+        verifyNoInteractions(cb);
+    }
+
+    @Test
+    void ofTest_hotPartitionByDefault() {
+        doReturn(archived).when(root).get("archived");
+
+        TaskSpecification.of(TaskFilterDto.builder().build()).toPredicate(root, cb);
+
+        verify(cb).isFalse(archived);
+    }
+
+    @Test
+    void titleStartsWithTest_likeWildcardsEscaped() {
+        doReturn(path).when(root).get("title");
+
+        TaskSpecification.titleStartsWith("50%_off").toPredicate(root, cb);
+
+        verify(cb).like(eq(path), eq("50\\%\\_off%"), eq('\\'));
+    }
+
+    @Test
+    void matchesTest_blankQueryAddsNoPredicate() {
+        assertNull(TaskSpecification.matches("  ").toPredicate(root, cb));
+        verifyNoInteractions(cb);
+    }
+}